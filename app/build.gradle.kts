@@ -1,8 +1,11 @@
 // Gradle script to build and run the SortCheckstyle project
 
+import com.github.stephengold.sortcheckstyle.gradle.SortCheckstyleTask
+
 plugins {
     application // to build JVM applications
     checkstyle  // to analyze Java sourcecode for style violations
+    alias(libs.plugins.jmh) // to run JMH benchmarks
 }
 
 val javaVersion = JavaVersion.current()
@@ -26,6 +29,21 @@ checkstyle {
 
 dependencies {
     implementation(libs.jcommander)
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+}
+
+jmh { // configure the JMH benchmarks in src/jmh:
+    jmhVersion = libs.versions.jmh.get()
+    jvmArgsAppend.add("-Dsortcheckstyle.selfConfig="
+            + rootProject.file("config/checkstyle/checkstyle.xml"))
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
+
+tasks.named<Test>("test") {
+    enableAssertions = true
+    useJUnitPlatform()
 }
 
 // Register Java-execution tasks:
@@ -62,6 +80,23 @@ tasks.register<JavaExec>("runSun") {
     args("-u", "https://raw.githubusercontent.com/checkstyle/checkstyle/refs/heads/master/src/main/resources/sun_checks.xml")
     description = "Process the Checkstyle configuration for Sun's Java Style."
 }
+tasks.register<JavaExec>("runUpstream") {
+    args("--mirror", "build/uriMirror",
+            "-u", "https://raw.githubusercontent.com/checkstyle/checkstyle/refs/heads/master/config/checkstyle-checks.xml",
+            "-u", "https://raw.githubusercontent.com/checkstyle/checkstyle/refs/heads/master/src/main/resources/google_checks.xml",
+            "-u", "https://raw.githubusercontent.com/checkstyle/checkstyle/refs/heads/master/src/main/resources/openjdk_checks.xml",
+            "-u", "https://raw.githubusercontent.com/checkstyle/checkstyle/refs/heads/master/src/main/resources/sun_checks.xml")
+    description = "Fetch and process all 4 upstream Checkstyle configurations."
+}
+
+// Register in-process sorting tasks:
+
+tasks.register<SortCheckstyleTask>("sortConfigs") {
+    description = "Sort the project's Checkstyle configurations in-process."
+    source.from(rootProject.fileTree("config") { include("**/*.xml") })
+    sorterClasspath.from(tasks.named("jar"), configurations.runtimeClasspath)
+    outputDirectory = layout.buildDirectory.dir("sortedConfigs")
+}
 
 // Register cleanup tasks:
 
@@ -0,0 +1,288 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.transform.TransformerException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * JMH benchmarks for the individual phases of processing a document: parse,
+ * ID-map initialization, whitespace compression, sorting, and output.
+ * <p>
+ * Each benchmark gets only the state it needs. The phases that modify the
+ * DOM run in single-shot mode, each invocation consuming a batch of
+ * documents that were cloned before the iteration, so cloning is never
+ * timed and never happens per invocation.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+public class PhaseBenchmark {
+    // *************************************************************************
+    // constants
+
+    /**
+     * number of pre-cloned documents consumed by each invocation of a
+     * benchmark that modifies the DOM
+     */
+    final private static int batchSize = 8;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Parse the input into a DOM.
+     *
+     * @param input the parsed configuration (not null)
+     * @return a new document
+     * @throws IOException if the input cannot be read
+     * @throws SAXException if a parse error occurs
+     */
+    @Benchmark
+    public Document parse(Input input) throws IOException, SAXException {
+        Document result = input.builder.parse(
+                new ByteArrayInputStream(input.inputBytes));
+        return result;
+    }
+
+    /**
+     * Serialize the parsed DOM to bytes.
+     *
+     * @param input the parsed configuration (not null)
+     * @return a new array of bytes
+     * @throws TransformerException if an error occurs while serializing
+     */
+    @Benchmark
+    public byte[] serialize(Input input) throws TransformerException {
+        ByteArrayOutputStream stream
+                = new ByteArrayOutputStream(input.inputBytes.length);
+        input.fileSorter.write(input.parsed, stream);
+        return stream.toByteArray();
+    }
+
+    /**
+     * Sort the attributes and children of every module in a batch of
+     * freshly traversed documents.
+     *
+     * @param batch the traversed documents (not null, modified)
+     * @return the total number of modules sorted
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(batchSize)
+    @Warmup(iterations = 10)
+    public int sortModuleChildren(TraversedBatch batch) {
+        int result = 0;
+        for (int i = 0; i < batchSize; ++i) {
+            List<Node> modules = batch.modules.get(i);
+            batch.sorters[i].sortModules(modules);
+            result += modules.size();
+        }
+
+        return result;
+    }
+
+    /**
+     * Traverse a batch of freshly cloned documents, collecting module IDs
+     * and compressing whitespace in values.
+     *
+     * @param batch the cloned documents (not null, modified)
+     * @return the total number of modules found
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(batchSize)
+    @Warmup(iterations = 10)
+    public int traverse(ClonedBatch batch) {
+        int result = 0;
+        for (Document document : batch.documents) {
+            List<Node> modules = batch.sorter.traverse(document, true);
+            result += modules.size();
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Instantiate the processing options used by every benchmark.
+     *
+     * @return a new instance
+     */
+    private static Parameters newParameters() {
+        Parameters result = new Parameters(
+                true, true, true, ModuleGroups.builtIn());
+        return result;
+    }
+    // *************************************************************************
+    // ClonedBatch class
+
+    /**
+     * Untouched copies of the parsed configuration, cloned before each
+     * iteration.
+     */
+    @State(Scope.Thread)
+    public static class ClonedBatch {
+        /**
+         * the copies (not null after setup)
+         */
+        private Document[] documents;
+        /**
+         * sorter to traverse the copies (not null after setup)
+         */
+        private DocumentSorter sorter;
+
+        /**
+         * Clone the parsed configuration before each iteration.
+         *
+         * @param input the parsed configuration (not null, unaffected)
+         */
+        @Setup(Level.Iteration)
+        public void setUp(Input input) {
+            this.sorter = new DocumentSorter(newParameters(), new Stats());
+            this.documents = new Document[batchSize];
+            for (int i = 0; i < batchSize; ++i) {
+                documents[i] = (Document) input.parsed.cloneNode(true);
+            }
+        }
+    }
+    // *************************************************************************
+    // Input class
+
+    /**
+     * The configuration to process, loaded and parsed once per trial.
+     */
+    @State(Scope.Thread)
+    public static class Input {
+        /**
+         * parser for the input (not null after setup)
+         */
+        private DocumentBuilder builder;
+        /**
+         * serializer for the output (not null after setup)
+         */
+        private FileSorter fileSorter;
+        /**
+         * the input as UTF-8 bytes (not null after setup)
+         */
+        private byte[] inputBytes;
+        /**
+         * pristine DOM of the input (not null after setup)
+         */
+        private Document parsed;
+        /**
+         * the configuration to process: a number of synthetic modules, or
+         * "self" for the SortCheckstyle configuration file
+         */
+        @Param({"10", "1000", "100000", "self"})
+        public String config;
+
+        /**
+         * Load and parse the configuration before each trial.
+         *
+         * @throws IOException if the configuration cannot be read
+         * @throws SAXException if a parse error occurs
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException, SAXException {
+            if (config.equals("self")) {
+                String path = System.getProperty("sortcheckstyle.selfConfig");
+                this.inputBytes = Files.readAllBytes(Paths.get(path));
+            } else {
+                int numModules = Integer.parseInt(config);
+                String xml = SyntheticConfigs.generate(numModules);
+                this.inputBytes = xml.getBytes(StandardCharsets.UTF_8);
+            }
+
+            this.builder = XmlFactories.documentBuilder();
+            this.parsed = builder.parse(new ByteArrayInputStream(inputBytes));
+            this.fileSorter
+                    = new FileSorter(newParameters(), new Stats(), null);
+        }
+    }
+    // *************************************************************************
+    // TraversedBatch class
+
+    /**
+     * Copies of the parsed configuration, cloned and traversed before each
+     * iteration, each with the sorter that traversed it.
+     */
+    @State(Scope.Thread)
+    public static class TraversedBatch {
+        /**
+         * the modules of each copy (not null after setup)
+         */
+        private List<List<Node>> modules;
+        /**
+         * the sorter that traversed each copy (not null after setup)
+         */
+        private DocumentSorter[] sorters;
+
+        /**
+         * Clone and traverse the parsed configuration before each
+         * iteration.
+         *
+         * @param input the parsed configuration (not null, unaffected)
+         */
+        @Setup(Level.Iteration)
+        public void setUp(Input input) {
+            this.modules = new ArrayList<>(batchSize);
+            this.sorters = new DocumentSorter[batchSize];
+            for (int i = 0; i < batchSize; ++i) {
+                Document copy = (Document) input.parsed.cloneNode(true);
+                sorters[i] = new DocumentSorter(newParameters(), new Stats());
+                modules.add(sorters[i].traverse(copy, true));
+            }
+        }
+    }
+}
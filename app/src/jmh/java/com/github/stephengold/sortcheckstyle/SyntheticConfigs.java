@@ -0,0 +1,132 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.util.Random;
+
+/**
+ * Generate synthetic Checkstyle configurations for benchmarking.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class SyntheticConfigs {
+    // *************************************************************************
+    // constants
+
+    /**
+     * names of TreeWalker checks to choose from
+     */
+    final private static String[] checkNames = {
+        "AbstractClassName", "AnnotationLocation", "AvoidInlineConditionals",
+        "AvoidNestedBlocks", "ClassMemberImpliedModifier",
+        "CommentsIndentation", "CyclomaticComplexity", "EmptyStatement",
+        "FinalClass", "GenericWhitespace", "HiddenField", "IllegalTokenText",
+        "ImportOrder", "InterfaceTypeParameterName", "JavadocBlockTagLocation",
+        "LambdaBodyLength", "LeftCurly", "MethodTypeParameterName",
+        "MissingJavadocMethod", "MissingNullCaseInSwitch", "NeedBraces",
+        "NestedIfDepth", "OneStatementPerLine", "OperatorWrap",
+        "RecordComponentNumber", "ReturnCount", "StaticVariableName",
+        "SummaryJavadoc", "TodoComment", "TrailingComment",
+        "VariableDeclarationUsageDistance", "WhitespaceAround"
+    };
+    /**
+     * names of suppression filters to choose from
+     */
+    final private static String[] suppressionNames = {
+        "SuppressionCommentFilter", "SuppressionXpathSingleFilter",
+        "SuppressWithNearbyCommentFilter"
+    };
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private SyntheticConfigs() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Generate a reproducible, unsorted configuration with the specified
+     * number of modules under a single TreeWalker. About 1/4 of the modules
+     * have IDs, 1/4 of those are suppressed, and 1/5 of the modules are
+     * preceded by comments.
+     *
+     * @param numModules the desired number of TreeWalker children (&ge;0)
+     * @return XML text (not null)
+     */
+    static String generate(int numModules) {
+        Random random = new Random(numModules);
+        StringBuilder xml = new StringBuilder(numModules * 120);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<module name=\"Checker\">\n")
+                .append("    <module name=\"TreeWalker\">\n");
+
+        int numIds = 0;
+        for (int i = 0; i < numModules; ++i) {
+            if (random.nextInt(5) == 0) {
+                xml.append("        <!-- comment ").append(i).append(" -->\n");
+            }
+            String name = checkNames[random.nextInt(checkNames.length)];
+            if (numIds > 0 && random.nextInt(16) == 0) {
+                // Suppress a previous module by ID:
+                name = suppressionNames[
+                        random.nextInt(suppressionNames.length)];
+                int id = random.nextInt(numIds);
+                xml.append("        <module name=\"").append(name)
+                        .append("\">\n")
+                        .append("            <property name=\"query\" ")
+                        .append("value=\"//METHOD_DEF   [@text='x']\"/>\n")
+                        .append("            <property name=\"id\" value=\"id")
+                        .append(id).append("\"/>\n")
+                        .append("        </module>\n");
+
+            } else if (random.nextInt(4) == 0) {
+                xml.append("        <module name=\"").append(name)
+                        .append("\">\n")
+                        .append("            <property name=\"severity\" ")
+                        .append("value=\"warning\"/>\n")
+                        .append("            <property name=\"id\" value=\"id")
+                        .append(numIds).append("\"/>\n")
+                        .append("            <message key=\"z.key\" ")
+                        .append("value=\"a   b\t c\"/>\n")
+                        .append("            <message key=\"a.key\" ")
+                        .append("value=\"x\"/>\n")
+                        .append("        </module>\n");
+                ++numIds;
+
+            } else {
+                xml.append("        <module name=\"").append(name)
+                        .append("\"/>\n");
+            }
+        }
+
+        xml.append("        <property name=\"tabWidth\" value=\"4\"/>\n")
+                .append("    </module>\n")
+                .append("    <property name=\"charset\" value=\"UTF-8\"/>\n")
+                .append("    <module name=\"NewlineAtEndOfFile\"/>\n")
+                .append("</module>\n");
+
+        return xml.toString();
+    }
+}
@@ -0,0 +1,310 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An OutputStream that replaces a file atomically. The output goes to a
+ * temporary file in the same directory, which is renamed over the target
+ * when committed. While the output matches the existing content of the
+ * target, nothing is written at all, so an unchanged target keeps its
+ * modification time.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class AtomicOutputStream extends OutputStream {
+    // *************************************************************************
+    // fields
+
+    /**
+     * size of the I/O buffers, in bytes (&ge;1)
+     */
+    final private int bufferSize;
+    /**
+     * existing content of the target, or null if none remains to compare
+     */
+    private InputStream existing;
+    /**
+     * true once the output has diverged from the existing target
+     */
+    private boolean isDiverged;
+    /**
+     * number of leading bytes that match the existing target
+     */
+    private long numMatched;
+    /**
+     * scratch array for comparisons (not null)
+     */
+    final private byte[] scratch;
+    /**
+     * file to be replaced (not null)
+     */
+    final private Path target;
+    /**
+     * buffered stream to the temporary file, or null if not yet created
+     */
+    private OutputStream temp;
+    /**
+     * temporary file, or null if not yet created
+     */
+    private Path tempPath;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Begin replacing the specified file.
+     *
+     * @param target the path to the file to replace (not null, needn't exist)
+     * @param bufferSize the size of the I/O buffers, in bytes (&ge;1)
+     * @throws IOException if the existing target cannot be opened
+     */
+    AtomicOutputStream(Path target, int bufferSize) throws IOException {
+        this.target = target;
+        this.bufferSize = bufferSize;
+        this.scratch = new byte[bufferSize];
+        if (Files.isRegularFile(target)) {
+            this.existing = new BufferedInputStream(
+                    Files.newInputStream(target), bufferSize);
+        } else {
+            this.isDiverged = true;
+        }
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Finish the output and replace the target with it, unless the content
+     * is unchanged.
+     *
+     * @return {@code true} if the target was replaced, {@code false} if it
+     * was already identical
+     * @throws IOException if the target cannot be replaced
+     */
+    boolean commit() throws IOException {
+        if (!isDiverged && existing.read() == -1) {
+            // The existing target is identical to the output:
+            existing.close();
+            existing = null;
+            return false;
+        }
+
+        diverge();
+        temp.close();
+        temp = null;
+        try {
+            Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        tempPath = null;
+
+        return true;
+    }
+    // *************************************************************************
+    // OutputStream methods
+
+    /**
+     * Release all resources. If the output wasn't committed, it's discarded
+     * and the target is left as it was.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (existing != null) {
+            existing.close();
+            existing = null;
+        }
+        if (temp != null) {
+            temp.close();
+            temp = null;
+        }
+        if (tempPath != null) {
+            Files.deleteIfExists(tempPath);
+            tempPath = null;
+        }
+    }
+
+    /**
+     * Flush the output. Since nothing is visible until the output is
+     * committed, this has no effect.
+     */
+    @Override
+    public void flush() {
+        // do nothing
+    }
+
+    /**
+     * Write the specified byte.
+     *
+     * @param b the byte to write (in the low-order 8 bits)
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(int b) throws IOException {
+        byte[] array = {(byte) b};
+        write(array, 0, 1);
+    }
+
+    /**
+     * Write the specified bytes.
+     *
+     * @param bytes the array containing the bytes (not null, unaffected)
+     * @param offset the index of the first byte to write (&ge;0)
+     * @param length the number of bytes to write (&ge;0)
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(byte[] bytes, int offset, int length)
+            throws IOException {
+        int start = offset;
+        int remaining = length;
+        while (!isDiverged && remaining > 0) {
+            // Compare the next chunk with the existing target:
+            int chunkSize = Math.min(remaining, scratch.length);
+            int numRead = readFully(existing, scratch, chunkSize);
+            if (numRead == chunkSize
+                    && matchesScratch(bytes, start, chunkSize)) {
+                numMatched += chunkSize;
+                start += chunkSize;
+                remaining -= chunkSize;
+            } else {
+                diverge();
+            }
+        }
+
+        if (remaining > 0) {
+            diverge();
+            temp.write(bytes, start, remaining);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Create the temporary file, if it doesn't exist yet, and copy into it
+     * the leading bytes that matched the existing target.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void diverge() throws IOException {
+        if (temp != null) {
+            return;
+        }
+        isDiverged = true;
+        if (existing != null) {
+            existing.close();
+            existing = null;
+        }
+
+        // Create the file in the target's directory, so it can be renamed:
+        Path directory = target.toAbsolutePath().getParent();
+        String tempName = String.format(
+                ".%s.%s.tmp", target.getFileName(), UUID.randomUUID());
+        tempPath = directory.resolve(tempName);
+        temp = new BufferedOutputStream(Files.newOutputStream(
+                tempPath, StandardOpenOption.CREATE_NEW), bufferSize);
+        if (Files.exists(target)) {
+            // Preserve the permissions of the target, where supported:
+            try {
+                Set<PosixFilePermission> permissions
+                        = Files.getPosixFilePermissions(target);
+                Files.setPosixFilePermissions(tempPath, permissions);
+            } catch (UnsupportedOperationException exception) {
+                // not a POSIX file system
+            }
+        }
+
+        if (numMatched > 0L) {
+            try (InputStream prefix = Files.newInputStream(target)) {
+                long numCopied = 0L;
+                while (numCopied < numMatched) {
+                    long numLeft = numMatched - numCopied;
+                    int chunkSize = (int) Math.min(numLeft, bufferSize);
+                    int numRead = readFully(prefix, scratch, chunkSize);
+                    if (numRead == 0) {
+                        throw new IOException(
+                                "File changed during output: " + target);
+                    }
+                    temp.write(scratch, 0, numRead);
+                    numCopied += numRead;
+                }
+            }
+        }
+    }
+
+    /**
+     * Test whether the specified bytes match the start of the scratch array.
+     *
+     * @param bytes the array containing the bytes (not null, unaffected)
+     * @param offset the index of the first byte to compare (&ge;0)
+     * @param length the number of bytes to compare (&ge;0)
+     * @return {@code true} if they match, otherwise {@code false}
+     */
+    private boolean matchesScratch(byte[] bytes, int offset, int length) {
+        for (int i = 0; i < length; ++i) {
+            if (bytes[offset + i] != scratch[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Read up to the specified number of bytes, stopping early only at the
+     * end of the input.
+     *
+     * @param input the stream to read (not null)
+     * @param array the array to fill (not null, modified)
+     * @param length the number of bytes to read (&ge;0)
+     * @return the number of bytes read (&ge;0, &le;length)
+     * @throws IOException if an I/O error occurs
+     */
+    private static int readFully(InputStream input, byte[] array, int length)
+            throws IOException {
+        int result = 0;
+        while (result < length) {
+            int numRead = input.read(array, result, length - result);
+            if (numRead < 0) {
+                break;
+            }
+            result += numRead;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Utilities to expand the inputs of a batch into a list of files.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class BatchInputs {
+    // *************************************************************************
+    // constants
+
+    /**
+     * characters that introduce a glob pattern
+     */
+    final private static String globChars = "*?[{";
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private BatchInputs() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Expand the specified batch inputs into a list of regular files. Each
+     * input may name a regular file, a directory (searched recursively for
+     * filenames that match {@code includeGlob}), or a glob pattern such as
+     * "config/**&#47;checkstyle.xml". In a glob, "**&#47;" also matches zero
+     * directories.
+     *
+     * @param inputs the batch inputs, in order (not null, unaffected)
+     * @param includeGlob the glob for filenames to include when searching a
+     * directory (not null)
+     * @param addUnmatched storage for inputs that designate no files (not
+     * null, added to)
+     * @return a new list of distinct paths, in order
+     * @throws IOException if a directory can't be searched
+     */
+    static List<Path> expand(Collection<String> inputs, String includeGlob,
+            Collection<String> addUnmatched) throws IOException {
+        FileSystem fileSystem = FileSystems.getDefault();
+        PathMatcher includeMatcher
+                = fileSystem.getPathMatcher("glob:" + includeGlob);
+        Set<Path> resultSet = new LinkedHashSet<>();
+
+        for (String input : inputs) {
+            List<Path> matches = new ArrayList<>();
+            if (isGlob(input)) {
+                addGlobMatches(input, matches);
+
+            } else {
+                Path path = Paths.get(input);
+                if (Files.isDirectory(path)) {
+                    addDirectoryMatches(path, includeMatcher, matches);
+                } else if (Files.isRegularFile(path)) {
+                    matches.add(path.normalize());
+                }
+            }
+
+            if (matches.isEmpty()) {
+                addUnmatched.add(input);
+            } else {
+                resultSet.addAll(matches);
+            }
+        }
+
+        List<Path> result = new ArrayList<>(resultSet);
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Search the specified directory recursively for regular files whose
+     * names match the specified matcher.
+     *
+     * @param directory the directory to search (not null)
+     * @param matcher the matcher to apply to filenames (not null)
+     * @param addResults storage for matching paths (not null, added to)
+     * @throws IOException if the directory can't be searched
+     */
+    private static void addDirectoryMatches(Path directory,
+            PathMatcher matcher, Collection<Path> addResults)
+            throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            stream.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(path.getFileName()))
+                    .sorted()
+                    .forEachOrdered(path -> addResults.add(path.normalize()));
+        }
+    }
+
+    /**
+     * Add all regular files that match the specified glob pattern. The search
+     * starts from the longest leading part of the pattern that contains no
+     * glob characters.
+     *
+     * @param pattern the glob pattern (not null)
+     * @param addResults storage for matching paths (not null, added to)
+     * @throws IOException if a directory can't be searched
+     */
+    private static void addGlobMatches(
+            String pattern, Collection<Path> addResults) throws IOException {
+        String normalized = pattern.replace('\\', '/');
+        int firstGlob = normalized.length();
+        for (int i = 0; i < globChars.length(); ++i) {
+            int index = normalized.indexOf(globChars.charAt(i));
+            if (index >= 0 && index < firstGlob) {
+                firstGlob = index;
+            }
+        }
+        int lastSlash = normalized.lastIndexOf('/', firstGlob);
+        String rootString = (lastSlash < 0)
+                ? "." : normalized.substring(0, lastSlash + 1);
+        Path root = Paths.get(rootString);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        String relativePattern = normalized.substring(lastSlash + 1);
+        FileSystem fileSystem = FileSystems.getDefault();
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String variant : zeroDirectoryVariants(relativePattern)) {
+            matchers.add(fileSystem.getPathMatcher("glob:" + variant));
+        }
+        try (Stream<Path> stream = Files.walk(root)) {
+            stream.filter(Files::isRegularFile)
+                    .filter(path -> matchesAny(matchers, root.relativize(path)))
+                    .sorted()
+                    .forEachOrdered(path -> addResults.add(path.normalize()));
+        }
+    }
+
+    /**
+     * Test whether the specified input is a glob pattern.
+     *
+     * @param input the input to test (not null)
+     * @return {@code true} if it contains glob characters, otherwise
+     * {@code false}
+     */
+    private static boolean isGlob(String input) {
+        for (int i = 0; i < globChars.length(); ++i) {
+            char c = globChars.charAt(i);
+            if (input.indexOf(c) >= 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Test whether any of the specified matchers matches the specified path.
+     *
+     * @param matchers the matchers to apply (not null, unaffected)
+     * @param path the path to test (not null)
+     * @return {@code true} if one matches, otherwise {@code false}
+     */
+    private static boolean matchesAny(List<PathMatcher> matchers, Path path) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Enumerate the variants of the specified glob pattern obtained by
+     * deleting any combination of its "**&#47;" sequences. Java's glob syntax
+     * requires "**&#47;" to match at least one directory, so matching against
+     * every variant lets it match zero directories as well.
+     *
+     * @param pattern the glob pattern (not null)
+     * @return a new list of patterns, including the original
+     */
+    private static List<String> zeroDirectoryVariants(String pattern) {
+        List<String> result = new ArrayList<>();
+        int index = pattern.indexOf("**/");
+        if (index < 0) {
+            result.add(pattern);
+            return result;
+        }
+
+        String head = pattern.substring(0, index);
+        for (String tail : zeroDirectoryVariants(
+                pattern.substring(index + 3))) {
+            result.add(head + "**/" + tail);
+            result.add(head + tail);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,437 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.util.Arrays;
+
+/**
+ * A node in a compact tree model of a Checkstyle configuration document,
+ * used in place of a W3C DOM. Only the node types that occur in
+ * configurations are modeled: elements, comments, processing instructions,
+ * text, and the document type declaration.
+ * <p>
+ * Attributes are stored in a single array of alternating names and values,
+ * and children in a growable array, so access by index is cheap. Tags and
+ * attribute names are interned by {@link ConfigReader}, and the ID of each
+ * module is computed once, while parsing.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ConfigNode {
+    // *************************************************************************
+    // enums
+
+    /**
+     * Enumerate the kinds of nodes in the model.
+     */
+    enum Kind {
+        /**
+         * a comment
+         */
+        COMMENT,
+        /**
+         * a document type declaration, whose external IDs are stored as
+         * "PUBLIC" and "SYSTEM" attributes
+         */
+        DOCTYPE,
+        /**
+         * the top level of a document
+         */
+        DOCUMENT,
+        /**
+         * an element
+         */
+        ELEMENT,
+        /**
+         * a processing instruction
+         */
+        INSTRUCTION,
+        /**
+         * character data
+         */
+        TEXT
+    }
+    // *************************************************************************
+    // constants
+
+    /**
+     * shared empty array for nodes without attributes
+     */
+    final private static String[] noAttributes = new String[0];
+    /**
+     * shared empty array for nodes without children
+     */
+    final private static ConfigNode[] noChildren = new ConfigNode[0];
+    // *************************************************************************
+    // fields
+
+    /**
+     * alternating names and values of the attributes, in document order (not
+     * null)
+     */
+    private String[] attributes = noAttributes;
+    /**
+     * children, in document order, followed by unused slots (not null)
+     */
+    private ConfigNode[] children = noChildren;
+    /**
+     * the module ID, or {@code null} if not a module with an ID
+     */
+    private String id;
+    /**
+     * kind of node (not null)
+     */
+    final private Kind kind;
+    /**
+     * number of children
+     */
+    private int numChildren;
+    /**
+     * the tag of an element, the target of a processing instruction, or the
+     * root-element name of a document type declaration, or {@code null} for
+     * other nodes
+     */
+    final private String tag;
+    /**
+     * the content of a comment or text, or the data of a processing
+     * instruction, or {@code null} for other nodes
+     */
+    final private String text;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a node.
+     *
+     * @param kind the kind of node (not null)
+     * @param tag the element tag or instruction target, or {@code null}
+     * @param text the content or instruction data, or {@code null}
+     */
+    private ConfigNode(Kind kind, String tag, String text) {
+        this.kind = kind;
+        this.tag = tag;
+        this.text = text;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Append the specified child to this node.
+     *
+     * @param child the node to add (not null, alias created)
+     */
+    void addChild(ConfigNode child) {
+        if (numChildren == children.length) {
+            int newLength = Math.max(4, 2 * numChildren);
+            this.children = Arrays.copyOf(children, newLength);
+        }
+        children[numChildren] = child;
+        ++numChildren;
+    }
+
+    /**
+     * Return the value of the named attribute.
+     *
+     * @param name the name of the attribute (not null)
+     * @return the value, or {@code null} if this node lacks the attribute
+     */
+    String attribute(String name) {
+        for (int i = 0; i < attributes.length; i += 2) {
+            if (attributes[i].equals(name)) {
+                return attributes[i + 1];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the name of the indexed attribute.
+     *
+     * @param index the index among the attributes (&ge;0)
+     * @return the name (not null)
+     */
+    String attributeName(int index) {
+        return attributes[2 * index];
+    }
+
+    /**
+     * Return the value of the indexed attribute.
+     *
+     * @param index the index among the attributes (&ge;0)
+     * @return the value (not null)
+     */
+    String attributeValue(int index) {
+        return attributes[2 * index + 1];
+    }
+
+    /**
+     * Determine the order of the attributes when sorted by name.
+     *
+     * @return a new array of attribute indices, in order of name, or
+     * {@code null} if the attributes are already in that order
+     */
+    Integer[] attributeOrder() {
+        int numAttributes = countAttributes();
+        boolean isSorted = true;
+        for (int i = 1; i < numAttributes && isSorted; ++i) {
+            isSorted = attributeName(i - 1).compareTo(attributeName(i)) <= 0;
+        }
+        if (isSorted) {
+            return null;
+        }
+
+        Integer[] result = new Integer[numAttributes];
+        for (int i = 0; i < numAttributes; ++i) {
+            result[i] = i;
+        }
+        Arrays.sort(result, (Integer a, Integer b)
+                -> attributeName(a).compareTo(attributeName(b)));
+
+        return result;
+    }
+
+    /**
+     * Return the indexed child.
+     *
+     * @param index the index among the children (&ge;0)
+     * @return the pre-existing node (not null)
+     */
+    ConfigNode child(int index) {
+        assert index < numChildren : index;
+        return children[index];
+    }
+
+    /**
+     * Count the attributes of this node.
+     *
+     * @return the count (&ge;0)
+     */
+    int countAttributes() {
+        return attributes.length / 2;
+    }
+
+    /**
+     * Count the children of this node.
+     *
+     * @return the count (&ge;0)
+     */
+    int countChildren() {
+        return numChildren;
+    }
+
+    /**
+     * Return the module ID of this node.
+     *
+     * @return the "id" property value, or {@code null} if not a module with
+     * an "id" property
+     */
+    String id() {
+        return id;
+    }
+
+    /**
+     * Test whether this node is an element.
+     *
+     * @return {@code true} if it is, otherwise {@code false}
+     */
+    boolean isElement() {
+        return kind == Kind.ELEMENT;
+    }
+
+    /**
+     * Return the kind of this node.
+     *
+     * @return the enum value (not null)
+     */
+    Kind kind() {
+        return kind;
+    }
+
+    /**
+     * Instantiate a comment.
+     *
+     * @param text the content of the comment (not null)
+     * @return a new node
+     */
+    static ConfigNode newComment(String text) {
+        return new ConfigNode(Kind.COMMENT, null, text);
+    }
+
+    /**
+     * Instantiate a document type declaration.
+     *
+     * @param name the name of the root element (not null)
+     * @param publicId the public ID, or {@code null} if none
+     * @param systemId the system ID, or {@code null} if none
+     * @return a new node
+     */
+    static ConfigNode newDoctype(
+            String name, String publicId, String systemId) {
+        ConfigNode result = new ConfigNode(Kind.DOCTYPE, name, null);
+        if (publicId != null && systemId != null) {
+            result.attributes
+                    = new String[]{"PUBLIC", publicId, "SYSTEM", systemId};
+        } else if (systemId != null) {
+            result.attributes = new String[]{"SYSTEM", systemId};
+        }
+
+        return result;
+    }
+
+    /**
+     * Instantiate a node to hold the top level of a document.
+     *
+     * @return a new node, without children
+     */
+    static ConfigNode newDocument() {
+        return new ConfigNode(Kind.DOCUMENT, null, null);
+    }
+
+    /**
+     * Instantiate an element.
+     *
+     * @param tag the element's tag (not null)
+     * @param attributes alternating names and values of the attributes (not
+     * null, alias created)
+     * @return a new node, without children
+     */
+    static ConfigNode newElement(String tag, String[] attributes) {
+        assert attributes.length % 2 == 0 : attributes.length;
+
+        ConfigNode result = new ConfigNode(Kind.ELEMENT, tag, null);
+        if (attributes.length > 0) {
+            result.attributes = attributes;
+        }
+
+        return result;
+    }
+
+    /**
+     * Instantiate a processing instruction.
+     *
+     * @param target the target of the instruction (not null)
+     * @param data the data of the instruction, or {@code null} if none
+     * @return a new node
+     */
+    static ConfigNode newInstruction(String target, String data) {
+        return new ConfigNode(Kind.INSTRUCTION, target, data);
+    }
+
+    /**
+     * Instantiate a text node.
+     *
+     * @param text the character data (not null)
+     * @return a new node
+     */
+    static ConfigNode newText(String text) {
+        return new ConfigNode(Kind.TEXT, null, text);
+    }
+
+    /**
+     * Replace the value of the indexed attribute.
+     *
+     * @param index the index among the attributes (&ge;0)
+     * @param value the desired value (not null)
+     */
+    void setAttributeValue(int index, String value) {
+        attributes[2 * index + 1] = value;
+    }
+
+    /**
+     * Replace the children of this node with a permutation of themselves.
+     *
+     * @param newOrder the same children, in the desired order (not null,
+     * length equal to the number of children, unaffected)
+     */
+    void setChildren(ConfigNode[] newOrder) {
+        assert newOrder.length == numChildren : newOrder.length;
+        System.arraycopy(newOrder, 0, children, 0, numChildren);
+    }
+
+    /**
+     * Alter the module ID of this node.
+     *
+     * @param id the desired ID, or {@code null} for none
+     */
+    void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Sort the attributes of this node by name.
+     *
+     * @return the number of attributes that changed position (&ge;0)
+     */
+    int sortAttributes() {
+        Integer[] order = attributeOrder();
+        if (order == null) {
+            return 0;
+        }
+
+        int numAttributes = order.length;
+        int result = 0;
+        String[] sorted = new String[attributes.length];
+        for (int i = 0; i < numAttributes; ++i) {
+            int oldIndex = order[i];
+            if (oldIndex != i) {
+                ++result;
+            }
+            sorted[2 * i] = attributes[2 * oldIndex];
+            sorted[2 * i + 1] = attributes[2 * oldIndex + 1];
+        }
+        this.attributes = sorted;
+
+        return result;
+    }
+
+    /**
+     * Return the tag of this element, the target of this processing
+     * instruction, or the root-element name of this document type
+     * declaration.
+     *
+     * @return the pre-existing string, or {@code null} for other nodes
+     */
+    String tag() {
+        return tag;
+    }
+
+    /**
+     * Return the content of this comment or text, or the data of this
+     * processing instruction.
+     *
+     * @return the pre-existing string, or {@code null} for other nodes
+     */
+    String text() {
+        return text;
+    }
+
+    /**
+     * Copy the children of this node to a new array.
+     *
+     * @return a new array of pre-existing nodes, in document order
+     */
+    ConfigNode[] toArray() {
+        ConfigNode[] result = Arrays.copyOf(children, numChildren);
+        return result;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Parse Checkstyle configuration documents into trees of {@link ConfigNode}
+ * objects, using an {@code XMLStreamReader}. Comments, processing
+ * instructions, and text inside the root element are preserved. Instances
+ * are not thread-safe, but distinct instances may be used concurrently.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ConfigReader {
+    // *************************************************************************
+    // constants
+
+    /**
+     * matches a document type declaration, capturing the root-element name
+     * and the quoted public and system IDs
+     */
+    final private static Pattern doctypePattern = Pattern.compile(
+            "<!DOCTYPE\\s+([^\\s\\[>]+)\\s*(?:PUBLIC\\s*(\"[^\"]*\"|'[^']*')"
+            + "\\s*(\"[^\"]*\"|'[^']*')|SYSTEM\\s*(\"[^\"]*\"|'[^']*'))?");
+    // *************************************************************************
+    // fields
+
+    /**
+     * canonical instances of tags, attribute names, and whitespace-only text,
+     * shared by all documents read by this instance
+     */
+    final private Map<String, String> internedStrings = new HashMap<>();
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Parse a document from the specified stream. Whitespace outside the
+     * root element and any internal DTD subset are discarded.
+     *
+     * @param stream the stream to read from (not null)
+     * @param systemId the system ID of the document, for error messages (may
+     * be null)
+     * @return a new node of kind {@code DOCUMENT}
+     * @throws XMLStreamException if a parse error occurs
+     */
+    ConfigNode read(InputStream stream, String systemId)
+            throws XMLStreamException {
+        ConfigNode result = ConfigNode.newDocument();
+        XMLStreamReader reader = XmlFactories.inputFactory()
+                .createXMLStreamReader(systemId, stream);
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    result.addChild(readElement(reader));
+
+                } else if (event == XMLStreamConstants.COMMENT
+                        || event == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                    result.addChild(readMarkup(reader));
+
+                } else if (event == XMLStreamConstants.DTD) {
+                    ConfigNode doctype = readDoctype(reader.getText());
+                    if (doctype != null) {
+                        result.addChild(doctype);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Return the canonical instance of the specified string.
+     *
+     * @param string the string to look up (not null)
+     * @return an equal string (not null)
+     */
+    private String intern(String string) {
+        String result = internedStrings.putIfAbsent(string, string);
+        if (result == null) {
+            result = string;
+        }
+
+        return result;
+    }
+
+    /**
+     * Test whether the specified text consists entirely of whitespace.
+     *
+     * @param text the text to test (not null)
+     * @return {@code true} if whitespace only, otherwise {@code false}
+     */
+    private static boolean isBlank(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; ++i) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Parse the specified document type declaration.
+     *
+     * @param text the text of the declaration (not null)
+     * @return a new node of kind {@code DOCTYPE}, or {@code null} if the text
+     * isn't recognized
+     */
+    private static ConfigNode readDoctype(String text) {
+        Matcher matcher = doctypePattern.matcher(text);
+        if (!matcher.lookingAt()) {
+            return null;
+        }
+
+        String name = matcher.group(1);
+        String publicId = unquote(matcher.group(2));
+        String systemId = unquote(matcher.group(3));
+        if (systemId == null) {
+            systemId = unquote(matcher.group(4));
+        }
+        ConfigNode result = ConfigNode.newDoctype(name, publicId, systemId);
+
+        return result;
+    }
+
+    /**
+     * Read the element at the reader's current position, along with its
+     * descendants. For a module, the ID is computed as well.
+     *
+     * @param reader the reader (not null, positioned at a start tag)
+     * @return a new node of kind {@code ELEMENT}
+     * @throws XMLStreamException if a parse error occurs
+     */
+    private ConfigNode readElement(XMLStreamReader reader)
+            throws XMLStreamException {
+        int numAttributes = reader.getAttributeCount();
+        String[] attributes = new String[2 * numAttributes];
+        for (int i = 0; i < numAttributes; ++i) {
+            attributes[2 * i] = intern(reader.getAttributeLocalName(i));
+            attributes[2 * i + 1] = reader.getAttributeValue(i);
+        }
+        String tag = intern(reader.getLocalName());
+        ConfigNode result = ConfigNode.newElement(tag, attributes);
+
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                result.addChild(readElement(reader));
+
+            } else if (event == XMLStreamConstants.CHARACTERS
+                    || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                String text = reader.getText();
+                if (isBlank(text)) {
+                    text = intern(text);
+                }
+                result.addChild(ConfigNode.newText(text));
+
+            } else if (event == XMLStreamConstants.COMMENT
+                    || event == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                result.addChild(readMarkup(reader));
+            }
+        }
+
+        if (tag.equals("module")) {
+            int numChildren = result.countChildren();
+            for (int i = 0; i < numChildren; ++i) {
+                ConfigNode child = result.child(i);
+                if ("property".equals(child.tag())
+                        && "id".equals(child.attribute("name"))) {
+                    result.setId(child.attribute("value"));
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Read the comment or processing instruction at the reader's current
+     * position.
+     *
+     * @param reader the reader (not null, positioned at a comment or
+     * processing instruction)
+     * @return a new node
+     */
+    private static ConfigNode readMarkup(XMLStreamReader reader) {
+        ConfigNode result;
+        if (reader.getEventType() == XMLStreamConstants.COMMENT) {
+            result = ConfigNode.newComment(reader.getText());
+        } else {
+            result = ConfigNode.newInstruction(
+                    reader.getPITarget(), reader.getPIData());
+        }
+
+        return result;
+    }
+
+    /**
+     * Remove the quotes from the specified literal.
+     *
+     * @param literal a quoted literal, or {@code null}
+     * @return the content of the literal, or {@code null} if {@code literal}
+     * is null
+     */
+    private static String unquote(String literal) {
+        if (literal == null) {
+            return null;
+        }
+        String result = literal.substring(1, literal.length() - 1);
+
+        return result;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serialize a tree of {@link ConfigNode} objects to XML text, with the same
+ * formatting that {@link FileSorter} gives to a W3C DOM: the XML declaration
+ * and any document type declaration on lines of their own, then each
+ * top-level node on a line of its own. Instances are not thread-safe.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ConfigWriter {
+    // *************************************************************************
+    // constants
+
+    /**
+     * XML declaration written at the start of each document
+     */
+    final static String declaration
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+    // *************************************************************************
+    // fields
+
+    /**
+     * reusable buffer for assembling tags and escaped text (not null)
+     */
+    final private StringBuilder buffer = new StringBuilder(256);
+    /**
+     * where to write the text (not null)
+     */
+    final private Writer writer;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a serializer for the specified writer.
+     *
+     * @param writer where to write the text (not null, alias created)
+     */
+    ConfigWriter(Writer writer) {
+        this.writer = writer;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Append the specified text to the specified builder, escaping characters
+     * as needed.
+     *
+     * @param text the text to append (not null)
+     * @param isAttribute {@code true} for an attribute value, {@code false}
+     * for character data
+     * @param builder the builder to append to (not null, modified)
+     */
+    static void appendEscaped(
+            String text, boolean isAttribute, StringBuilder builder) {
+        int length = text.length();
+        for (int i = 0; i < length; ++i) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    builder.append("&amp;");
+                    break;
+                case '<':
+                    builder.append("&lt;");
+                    break;
+                case '>':
+                    builder.append("&gt;");
+                    break;
+                case '\r':
+                    builder.append("&#13;");
+                    break;
+                case '"':
+                    builder.append(isAttribute ? "&quot;" : "\"");
+                    break;
+                case '\n':
+                    builder.append(isAttribute ? "&#10;" : "\n");
+                    break;
+                case '\t':
+                    builder.append(isAttribute ? "&#9;" : "\t");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+    }
+
+    /**
+     * Serialize the specified document, starting with an XML declaration.
+     * Text at the top level isn't written. The writer isn't flushed.
+     *
+     * @param document the top level of the document (not null, unaffected)
+     * @throws IOException if the text cannot be written
+     */
+    void write(ConfigNode document) throws IOException {
+        assert document.kind() == ConfigNode.Kind.DOCUMENT : document.kind();
+
+        String name = null;
+        String publicId = null;
+        String systemId = null;
+        int numChildren = document.countChildren();
+        for (int i = 0; i < numChildren; ++i) {
+            ConfigNode child = document.child(i);
+            if (child.kind() == ConfigNode.Kind.DOCTYPE) {
+                name = child.tag();
+                publicId = child.attribute("PUBLIC");
+                systemId = child.attribute("SYSTEM");
+            }
+        }
+        writeProlog(writer, name, publicId, systemId);
+
+        for (int i = 0; i < numChildren; ++i) {
+            ConfigNode child = document.child(i);
+            ConfigNode.Kind kind = child.kind();
+            if (kind != ConfigNode.Kind.DOCTYPE
+                    && kind != ConfigNode.Kind.TEXT) {
+                writeNode(child);
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Write the XML declaration, followed by the specified document type
+     * declaration (if any), each on a line of its own.
+     *
+     * @param writer where to write the text (not null)
+     * @param name the name of the root element in the document type
+     * declaration, or {@code null} for no document type declaration
+     * @param publicId the public ID, or {@code null} if none
+     * @param systemId the system ID, or {@code null} if none
+     * @throws IOException if the text cannot be written
+     */
+    static void writeProlog(Writer writer, String name, String publicId,
+            String systemId) throws IOException {
+        writer.write(declaration);
+        writer.write('\n');
+        if (name == null || systemId == null) {
+            return;
+        }
+
+        writer.write("<!DOCTYPE ");
+        writer.write(name);
+        if (publicId != null) {
+            writer.write(" PUBLIC \"");
+            writer.write(publicId);
+            writer.write("\" \"");
+        } else {
+            writer.write(" SYSTEM \"");
+        }
+        writer.write(systemId);
+        writer.write("\">\n");
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Serialize the specified element and its descendants. Attributes are
+     * written in order of name, as the DOM serializer writes them.
+     *
+     * @param element the element to write (not null, unaffected)
+     * @throws IOException if the text cannot be written
+     */
+    private void writeElement(ConfigNode element) throws IOException {
+        String tag = element.tag();
+        buffer.append('<').append(tag);
+        Integer[] order = element.attributeOrder();
+        int numAttributes = element.countAttributes();
+        for (int i = 0; i < numAttributes; ++i) {
+            int index = (order == null) ? i : order[i];
+            buffer.append(' ').append(element.attributeName(index))
+                    .append("=\"");
+            appendEscaped(element.attributeValue(index), true, buffer);
+            buffer.append('"');
+        }
+
+        int numChildren = element.countChildren();
+        if (numChildren == 0) {
+            buffer.append("/>");
+            writer.append(buffer);
+            return;
+        }
+
+        buffer.append('>');
+        writer.append(buffer);
+        for (int i = 0; i < numChildren; ++i) {
+            writeNode(element.child(i));
+        }
+        writer.write("</");
+        writer.write(tag);
+        writer.write('>');
+    }
+
+    /**
+     * Serialize the specified node and its descendants.
+     *
+     * @param node the node to write (not null, unaffected)
+     * @throws IOException if the text cannot be written
+     */
+    private void writeNode(ConfigNode node) throws IOException {
+        buffer.setLength(0);
+        switch (node.kind()) {
+            case COMMENT:
+                buffer.append("<!--").append(node.text()).append("-->");
+                break;
+
+            case ELEMENT:
+                writeElement(node);
+                return;
+
+            case INSTRUCTION:
+                buffer.append("<?").append(node.tag());
+                String data = node.text();
+                if (data != null && !data.isEmpty()) {
+                    buffer.append(' ').append(data);
+                }
+                buffer.append("?>");
+                break;
+
+            case TEXT:
+                appendEscaped(node.text(), false, buffer);
+                break;
+
+            default:
+                throw new IllegalArgumentException("kind = " + node.kind());
+        }
+        writer.append(buffer);
+    }
+}
@@ -0,0 +1,508 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Process a single Checkstyle configuration document. Each instance holds the
+ * state for one document, so distinct documents can be processed
+ * concurrently by distinct instances.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class DocumentSorter {
+    // *************************************************************************
+    // constants
+
+    /**
+     * minimum number of modules for concurrent sorting to pay off
+     */
+    final private static int minParallelModules = 64;
+    // *************************************************************************
+    // fields
+
+    /**
+     * table of module categories (not null)
+     */
+    final private ModuleGroups groups;
+    /**
+     * module IDs of the document most recently traversed (not null)
+     */
+    private IdIndex idIndex = new IdIndex();
+    /**
+     * map from DOM nodes to ID handles, for every module with an ID
+     */
+    private Map<Node, Integer> moduleToHandle = new IdentityHashMap<>();
+    /**
+     * processing options (not null)
+     */
+    final private Parameters parameters;
+    /**
+     * statistics to update (not null)
+     */
+    final private Stats stats;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a sorter with the specified options.
+     *
+     * @param parameters the processing options (not null, alias created)
+     * @param stats the statistics to update (not null, alias created)
+     */
+    DocumentSorter(Parameters parameters, Stats stats) {
+        this.groups = parameters.moduleGroups();
+        this.parameters = parameters;
+        this.stats = stats;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Check whether the specified document is already in canonical form,
+     * without modifying it. The check stops at the first violation found.
+     *
+     * @param document the document to check (not null, unaffected)
+     * @return a description of the first violation, or {@code null} if the
+     * document is in canonical form
+     */
+    String findViolation(Document document) {
+        List<Node> modules = traverse(document, false);
+
+        int numModules = modules.size();
+        for (int i = 0; i < numModules; ++i) {
+            Node module = modules.get(i);
+            String violation = moduleViolation(module);
+            if (violation != null) {
+                stats.countModules(i + 1);
+                return violation;
+            }
+        }
+        stats.countModules(numModules);
+
+        return null;
+    }
+
+    /**
+     * Process the specified document in memory.
+     *
+     * @param document the document to process (not null, modified)
+     */
+    void processDocument(Document document) {
+        long startNanos = System.nanoTime();
+        boolean compress = parameters.compressWhitespace();
+        List<Node> modules = traverse(document, compress);
+        stats.addTime(Stats.Phase.TRAVERSE, startNanos);
+
+        startNanos = System.nanoTime();
+        sortModules(modules);
+        stats.addTime(Stats.Phase.SORT, startNanos);
+    }
+
+    /**
+     * Plan the canonical order of the specified module's attributes and
+     * children, without modifying the DOM. Since the DOM is only read, and
+     * only by walking siblings, distinct modules may be planned concurrently
+     * once their document has been traversed.
+     *
+     * @param module the DOM node of the module (not null, unaffected)
+     * @return a new order (not null)
+     */
+    ModuleOrder planModule(Node module) {
+        short nodeType = module.getNodeType();
+        assert nodeType == Node.ELEMENT_NODE : nodeType;
+        String tag = module.getNodeName();
+        assert tag.equals("module") : tag;
+
+        ModuleOrder result = new ModuleOrder(module);
+        if (parameters.sortAttributes()) {
+            NamedNodeMap attributeMap = module.getAttributes();
+            if (!isSortedByName(attributeMap)) {
+                Node[] attributeArray = DomUtils.toArray(attributeMap);
+                Comparator<Node> byName
+                        = Comparator.comparing(Node::getNodeName);
+                Arrays.sort(attributeArray, byName);
+                result.setAttributes(attributeArray);
+            }
+        }
+
+        if (parameters.sortChildren() && !areChildrenSorted(module, result)) {
+            // Group the children into units, sort, and then ungroup:
+            Node[] childArray = DomUtils.toChildArray(module);
+            List<SortKey<Node>> keyList = groupChildren(childArray);
+            Collections.sort(keyList, (SortKey<Node> a, SortKey<Node> b) -> {
+                result.countComparison();
+                return a.compareTo(b);
+            });
+
+            int childIndex = 0;
+            for (SortKey<Node> key : keyList) {
+                for (Node child : key.nodes()) {
+                    childArray[childIndex] = child;
+                    ++childIndex;
+                }
+            }
+            result.setChildren(childArray);
+        }
+
+        return result;
+    }
+
+    /**
+     * Re-order the attributes and children of the specified modules. The
+     * modules must have been collected by {@link #traverse(Document, boolean)}
+     * on the same document. If requested, and there are enough modules, the
+     * orders are planned concurrently. Either way, the DOM is modified only
+     * on the current thread.
+     *
+     * @param modules the DOM nodes of the modules (not null, unaffected)
+     */
+    void sortModules(List<Node> modules) {
+        int numModules = modules.size();
+        ModuleOrder[] orders = null;
+        if (parameters.parallelSort() && numModules >= minParallelModules) {
+            orders = ModuleOrder.planConcurrently(this, modules);
+        }
+
+        long numComparisons = 0L;
+        long numMoves = 0L;
+        for (int i = 0; i < numModules; ++i) {
+            ModuleOrder order = (orders == null)
+                    ? planModule(modules.get(i)) : orders[i];
+            numMoves += order.apply();
+            numComparisons += order.countComparisons();
+        }
+
+        stats.countModules(numModules);
+        stats.countComparisons(numComparisons);
+        stats.countMoves(numMoves);
+    }
+
+    /**
+     * Visit every element of the specified document in a single depth-first
+     * traversal, collecting its modules and their IDs and optionally
+     * compressing whitespace in their values. Any previously collected IDs
+     * are released.
+     *
+     * @param document the document to traverse (not null, modified if
+     * {@code compress} is true)
+     * @param compress true to compress whitespace in message/property values,
+     * false to leave them unchanged
+     * @return a new list of modules, in document order
+     * @throws IllegalArgumentException if 2 modules outside the suppression
+     * group have the same ID
+     */
+    List<Node> traverse(Document document, boolean compress) {
+        this.idIndex = new IdIndex();
+        this.moduleToHandle = new IdentityHashMap<>();
+
+        List<Node> result = new ArrayList<>();
+        Node root = document.getDocumentElement();
+        if (root != null) {
+            visitElement(root, compress, result);
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Test whether the children of the specified module are already in
+     * sorted order, walking the siblings without copying or grouping them.
+     * Comments and text travel with the following element, so only the
+     * elements need to be compared.
+     *
+     * @param module the DOM node of the module (not null, unaffected)
+     * @param order the order in which to count comparisons (not null)
+     * @return {@code true} if sorting wouldn't change anything, otherwise
+     * {@code false}
+     */
+    private boolean areChildrenSorted(Node module, ModuleOrder order) {
+        SortKey<Node> previousKey = null;
+        for (Node child = module.getFirstChild();
+                child != null; child = child.getNextSibling()) {
+            short childType = child.getNodeType();
+            if (childType == Node.ELEMENT_NODE) {
+                SortKey<Node> key = elementKey(child, null);
+                if (previousKey != null) {
+                    order.countComparison();
+                    if (previousKey.compareTo(key) > 0) {
+                        return false;
+                    }
+                }
+                previousKey = key;
+
+            } else if (childType != Node.COMMENT_NODE
+                    && childType != Node.TEXT_NODE) {
+                throw new IllegalArgumentException("nodeType = " + childType);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Describe the specified element for a report.
+     *
+     * @param element the element's DOM node (not null, unaffected)
+     * @return descriptive text (not null)
+     */
+    private static String describeElement(Node element) {
+        String tag = element.getNodeName();
+        String attributeName = tag.equals("message") ? "key" : "name";
+        String value = DomUtils.getElementAttribute(element, attributeName);
+        String result
+                = String.format("<%s %s=\"%s\">", tag, attributeName, value);
+
+        return result;
+    }
+
+    /**
+     * Compute the sort key of the specified element.
+     *
+     * @param element the DOM node of the element (not null, unaffected)
+     * @param unit the DOM nodes to be decorated by the key, ending with
+     * {@code element} (not empty, alias created) or {@code null} for a key
+     * that's only compared
+     * @return a new key that decorates {@code unit}
+     */
+    private SortKey<Node> elementKey(Node element, Node[] unit) {
+        String tag = element.getNodeName();
+        String name = DomUtils.getElementAttribute(
+                element, SortKey.nameAttribute(tag));
+        String id = null;
+        if (tag.equals("module")) {
+            Integer handle = moduleToHandle.get(element);
+            if (handle != null) {
+                id = idIndex.id(handle);
+            }
+        }
+
+        SortKey<Node> result = SortKey.forElement(
+                groups, idIndex, unit, tag, name, id);
+        return result;
+    }
+
+    /**
+     * Return the "name" attribute of the specified element.
+     *
+     * @param element the element's DOM node (not null, unaffected)
+     * @return the attribute value, or {@code null} if the element lacks the
+     * "name" attribute
+     */
+    private static String getElementName(Node element) {
+        String result = DomUtils.getElementAttribute(element, "name");
+        return result;
+    }
+
+    /**
+     * Group the specified children of a module into sortable units, each
+     * consisting of an element together with any comments and text that
+     * precede it. Any comments and text after the last element form a
+     * trailing unit.
+     *
+     * @param children the DOM nodes of the children, in document order (not
+     * null, unaffected)
+     * @return a new list of keys, in document order
+     */
+    private List<SortKey<Node>> groupChildren(Node[] children) {
+        List<SortKey<Node>> result = new ArrayList<>(children.length);
+
+        int unitStart = 0;
+        for (int i = 0; i < children.length; ++i) {
+            Node child = children[i];
+            short childType = child.getNodeType();
+            if (childType == Node.ELEMENT_NODE) {
+                Node[] unit = Arrays.copyOfRange(children, unitStart, i + 1);
+                SortKey<Node> key = elementKey(child, unit);
+                result.add(key);
+                unitStart = i + 1;
+
+            } else if (childType != Node.COMMENT_NODE
+                    && childType != Node.TEXT_NODE) {
+                throw new IllegalArgumentException("nodeType = " + childType);
+            }
+        }
+
+        if (unitStart < children.length) {
+            Node[] unit
+                    = Arrays.copyOfRange(children, unitStart, children.length);
+            result.add(new SortKey<>(unit));
+        }
+
+        return result;
+    }
+
+    /**
+     * Test whether the specified attributes are already sorted by name.
+     *
+     * @param attributeMap the attributes to test (not null, unaffected)
+     * @return {@code true} if sorted, otherwise {@code false}
+     */
+    private static boolean isSortedByName(NamedNodeMap attributeMap) {
+        int numAttributes = attributeMap.getLength();
+        for (int i = 1; i < numAttributes; ++i) {
+            String name = attributeMap.item(i).getNodeName();
+            String previousName = attributeMap.item(i - 1).getNodeName();
+            if (previousName.compareTo(name) > 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Check whether the specified module is in canonical form.
+     *
+     * @param module the DOM node of the module (not null, unaffected)
+     * @return a description of the first violation, or {@code null} if the
+     * module is in canonical form
+     */
+    private String moduleViolation(Node module) {
+        String moduleDescription = describeElement(module);
+        NodeList childList = module.getChildNodes();
+        Node[] childArray = DomUtils.toArray(childList);
+
+        if (parameters.compressWhitespace()) {
+            for (Node child : childArray) {
+                if (Whitespace.isCompressible(child.getNodeName())) {
+                    String value
+                            = DomUtils.getElementAttribute(child, "value");
+                    if (value != null
+                            && !Whitespace.compress(value).equals(value)) {
+                        return String.format(
+                                "%s in %s has uncompressed whitespace",
+                                describeElement(child), moduleDescription);
+                    }
+                }
+            }
+        }
+
+        if (parameters.sortAttributes()) {
+            NamedNodeMap attributeMap = module.getAttributes();
+            Node[] attributeArray = DomUtils.toArray(attributeMap);
+            for (int i = 1; i < attributeArray.length; ++i) {
+                String name = attributeArray[i].getNodeName();
+                String previousName = attributeArray[i - 1].getNodeName();
+                if (previousName.compareTo(name) > 0) {
+                    return String.format("attribute \"%s\" of %s is unsorted",
+                            name, moduleDescription);
+                }
+            }
+        }
+
+        if (parameters.sortChildren()) {
+            List<SortKey<Node>> keyList = groupChildren(childArray);
+            int index = SortKey.findUnsorted(keyList);
+            if (index >= 0) {
+                Node[] unit = keyList.get(index).nodes();
+                Node element = unit[unit.length - 1];
+                Node[] previousUnit = keyList.get(index - 1).nodes();
+                Node previous = previousUnit[previousUnit.length - 1];
+                return String.format("in %s, %s should precede %s",
+                        moduleDescription, describeElement(element),
+                        describeElement(previous));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Visit the specified element and its descendants in document order.
+     *
+     * @param element the element's DOM node (not null)
+     * @param compress true to compress whitespace in message/property values,
+     * false to leave them unchanged
+     * @param modules storage for the modules found (not null, added to)
+     */
+    private void visitElement(
+            Node element, boolean compress, List<Node> modules) {
+        if (element.getNodeName().equals("module")) {
+            visitModule(element, compress);
+            modules.add(element);
+        }
+
+        for (Node child = element.getFirstChild();
+                child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                visitElement(child, compress, modules);
+            }
+        }
+    }
+
+    /**
+     * Visit the children of the specified module once, compressing their
+     * values (if requested) and recording the module's ID.
+     *
+     * @param module the module's DOM node (not null)
+     * @param compress true to compress whitespace in message/property values,
+     * false to leave them unchanged
+     * @throws IllegalArgumentException if the ID is already in use
+     */
+    private void visitModule(Node module, boolean compress) {
+        String moduleId = null;
+        for (Node child = module.getFirstChild();
+                child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            String childTag = child.getNodeName();
+            if (!Whitespace.isCompressible(childTag)) {
+                continue;
+            }
+
+            String value = DomUtils.getElementAttribute(child, "value");
+            if (compress && value != null) {
+                String compressed = Whitespace.compress(value);
+                if (compressed != value) {
+                    DomUtils.setElementAttribute(child, "value", compressed);
+                    value = compressed;
+                }
+            }
+            if (moduleId == null && childTag.equals("property")
+                    && "id".equals(getElementName(child))) {
+                moduleId = value;
+            }
+        }
+        if (moduleId == null) {
+            return;
+        }
+        String moduleName = getElementName(module);
+        int handle = idIndex.addModule(moduleId, moduleName,
+                groups.isInSuppressionGroup(moduleName));
+        moduleToHandle.put(module, handle);
+    }
+}
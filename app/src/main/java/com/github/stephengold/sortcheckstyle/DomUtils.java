@@ -21,6 +21,8 @@ SOFTWARE.
  */
 package com.github.stephengold.sortcheckstyle;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -53,6 +55,10 @@ final class DomUtils {
     static String getElementAttribute(Node element, String attributeName) {
         int nodeType = element.getNodeType();
         assert nodeType == Node.ELEMENT_NODE : "nodeType = " + nodeType;
+        if (!element.hasAttributes()) {
+            // Some DOMs would allocate an empty map, so don't ask for one.
+            return null;
+        }
 
         NamedNodeMap attributes = element.getAttributes();
         Node item = attributes.getNamedItem(attributeName);
@@ -62,30 +68,80 @@ final class DomUtils {
     }
 
     /**
-     * Replace all attributes of the specified DOM node.
+     * Re-order the attributes of the specified DOM node. Attributes already
+     * in place at the start of the map are left alone; the rest are removed
+     * and then re-added in the desired order.
      *
      * @param node the node to modify (not null)
-     * @param attributes the desired attributes, in order (not null)
+     * @param attributes the node's attributes, in the desired order (not
+     * null, unaffected)
+     * @return the number of attributes moved (&ge;0)
      */
-    static void setAttributesFromArray(Node node, Node[] attributes) {
-        clearAttributes(node);
+    static int reorderAttributes(Node node, Node[] attributes) {
         NamedNodeMap map = node.getAttributes();
-        for (Node attribute : attributes) {
-            map.setNamedItem(attribute);
+        int length = map.getLength();
+        assert attributes.length == length : attributes.length;
+
+        int numInPlace = 0;
+        while (numInPlace < length
+                && map.item(numInPlace) == attributes[numInPlace]) {
+            ++numInPlace;
         }
+
+        for (int i = length - 1; i >= numInPlace; --i) {
+            Node item = map.item(i);
+            String name = item.getNodeName();
+            map.removeNamedItem(name);
+        }
+        for (int i = numInPlace; i < length; ++i) {
+            map.setNamedItem(attributes[i]);
+        }
+
+        int result = length - numInPlace;
+        return result;
     }
 
     /**
-     * Replace all children of the specified DOM node.
+     * Re-order the children of the specified DOM node using as few moves as
+     * possible. Children in a longest increasing subsequence of the current
+     * order stay put, and each of the others is moved once, using
+     * {@code insertBefore()}.
      *
      * @param parent the node to modify (not null)
-     * @param children the desired children, in order (not null)
+     * @param children the node's children, in the desired order (not null,
+     * unaffected)
+     * @return the number of children moved (&ge;0)
      */
-    static void setChildrenFromArray(Node parent, Node[] children) {
-        clearChildren(parent);
-        for (Node child : children) {
-            parent.appendChild(child);
+    static int reorderChildren(Node parent, Node[] children) {
+        int length = children.length;
+
+        // Find the current position of each child:
+        Map<Node, Integer> currentIndex = new IdentityHashMap<>(length);
+        int index = 0;
+        for (Node child = parent.getFirstChild();
+                child != null; child = child.getNextSibling()) {
+            currentIndex.put(child, index);
+            ++index;
+        }
+        assert index == length : index;
+
+        int[] positions = new int[length];
+        for (int i = 0; i < length; ++i) {
+            positions[i] = currentIndex.get(children[i]);
         }
+        boolean[] stays = longestIncreasingSubsequence(positions);
+
+        // Working backward, insert each moving child before its successor:
+        int result = 0;
+        for (int i = length - 1; i >= 0; --i) {
+            if (!stays[i]) {
+                Node successor = (i + 1 < length) ? children[i + 1] : null;
+                parent.insertBefore(children[i], successor);
+                ++result;
+            }
+        }
+
+        return result;
     }
 
     /**
@@ -121,6 +177,32 @@ final class DomUtils {
         return result;
     }
 
+    /**
+     * Collect the children of the specified DOM node into an array by walking
+     * its siblings. Unlike a NodeList, which may cache its position, this
+     * only reads the DOM, so it's safe to use on distinct threads.
+     *
+     * @param parent the parent node (not null, unaffected)
+     * @return a new array of pre-existing nodes, in document order
+     */
+    static Node[] toChildArray(Node parent) {
+        int length = 0;
+        for (Node child = parent.getFirstChild();
+                child != null; child = child.getNextSibling()) {
+            ++length;
+        }
+
+        Node[] result = new Node[length];
+        int index = 0;
+        for (Node child = parent.getFirstChild();
+                child != null; child = child.getNextSibling()) {
+            result[index] = child;
+            ++index;
+        }
+
+        return result;
+    }
+
     /**
      * Convert the specified NodeList to an array, to facilitate sorting.
      *
@@ -140,31 +222,48 @@ final class DomUtils {
     // private methods
 
     /**
-     * Remove all attributes from the specified DOM node.
+     * Find a longest strictly increasing subsequence of the specified
+     * sequence, in O(n log n) time.
      *
-     * @param node the node to modify (not null)
+     * @param sequence the input sequence (not null, unaffected)
+     * @return a new array of flags, true for each element in the subsequence
      */
-    private static void clearAttributes(Node node) {
-        NamedNodeMap map = node.getAttributes();
-        int length = map.getLength();
-        for (int i = length - 1; i >= 0; --i) {
-            Node item = map.item(i);
-            String name = item.getNodeName();
-            map.removeNamedItem(name);
+    private static boolean[] longestIncreasingSubsequence(int[] sequence) {
+        int length = sequence.length;
+        // tails[k] is the index of the smallest tail of a run of length k+1:
+        int[] tails = new int[length];
+        int[] predecessors = new int[length];
+        int numTails = 0;
+
+        for (int i = 0; i < length; ++i) {
+            int value = sequence[i];
+
+            // Binary search for the first tail >= value:
+            int low = 0;
+            int high = numTails;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sequence[tails[middle]] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            predecessors[i] = (low > 0) ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == numTails) {
+                ++numTails;
+            }
         }
-    }
 
-    /**
-     * Remove all children from the specified DOM node.
-     *
-     * @param parent the node to modify (not null)
-     */
-    private static void clearChildren(Node parent) {
-        NodeList list = parent.getChildNodes();
-        int length = list.getLength();
-        for (int i = length - 1; i >= 0; --i) {
-            Node child = list.item(i);
-            parent.removeChild(child);
+        boolean[] result = new boolean[length];
+        if (numTails > 0) {
+            for (int i = tails[numTails - 1]; i >= 0; i = predecessors[i]) {
+                result[i] = true;
+            }
         }
+
+        return result;
     }
 }
@@ -0,0 +1,335 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Parse, process, and write Checkstyle configuration files, reusing the
+ * current thread's parser and transformer. Instances are not thread-safe,
+ * but distinct instances may be used concurrently.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class FileSorter {
+    // *************************************************************************
+    // fields
+
+    /**
+     * cache of sorting results, or null if caching is disabled
+     */
+    final private ResultCache cache;
+    /**
+     * processing options (not null)
+     */
+    final private Parameters parameters;
+    /**
+     * statistics to update (not null)
+     */
+    final private Stats stats;
+    /**
+     * sorter for the compact tree model (not null)
+     */
+    final private TreeSorter treeSorter;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a sorter with the specified options.
+     *
+     * @param parameters the processing options (not null, alias created)
+     * @param stats the statistics to update (not null, alias created)
+     * @param cache the cache of sorting results (alias created) or null to
+     * disable caching
+     */
+    FileSorter(Parameters parameters, Stats stats, ResultCache cache) {
+        this.cache = cache;
+        this.parameters = parameters;
+        this.stats = stats;
+        this.treeSorter = new TreeSorter(parameters, stats);
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Read a document from the specified URL and check whether it's already
+     * in canonical form, without writing anything.
+     *
+     * @param input the location of the input (not null)
+     * @return a description of the first violation found, or {@code null} if
+     * the document is in canonical form
+     * @throws IOException if the input cannot be read
+     * @throws SAXException if a parse error occurs
+     */
+    String check(URL input) throws IOException, SAXException {
+        Document document = parse(input);
+
+        long startNanos = System.nanoTime();
+        DocumentSorter sorter = new DocumentSorter(parameters, stats);
+        String result = sorter.findViolation(document);
+        stats.addTime(Stats.Phase.SORT, startNanos);
+
+        return result;
+    }
+
+    /**
+     * Check whether the specified file is already in canonical form, without
+     * modifying it. Files known to the cache aren't parsed. A passing check
+     * isn't recorded in the cache, since only the output of an actual sort
+     * is known to be canonical.
+     *
+     * @param path the path to the file (not null)
+     * @return a description of the first violation found, or {@code null} if
+     * the file is in canonical form
+     * @throws IOException if the file cannot be read
+     * @throws SAXException if a parse error occurs
+     */
+    String check(Path path) throws IOException, SAXException {
+        if (cache != null) {
+            byte[] content = Files.readAllBytes(path);
+            if (cache.isCanonical(content)) {
+                stats.countCacheHits(1);
+                return null;
+            }
+        }
+
+        String result = check(path.toUri().toURL());
+        return result;
+    }
+
+    /**
+     * Read and parse a document from the specified URL.
+     *
+     * @param input the location of the input (not null)
+     * @return a new document
+     * @throws IOException if the input cannot be read
+     * @throws SAXException if a parse error occurs
+     */
+    Document parse(URL input) throws IOException, SAXException {
+        Document result;
+        try (InputStream stream = input.openStream()) {
+            result = parse(stream, input.toString());
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse a document from the specified stream.
+     *
+     * @param input the stream to read (not null)
+     * @param systemId the system ID of the document, used to resolve
+     * relative entities, or {@code null} if unknown
+     * @return a new document
+     * @throws IOException if the input cannot be read
+     * @throws SAXException if a parse error occurs
+     */
+    Document parse(InputStream input, String systemId)
+            throws IOException, SAXException {
+        long startNanos = System.nanoTime();
+        InputSource source = new InputSource(stats.countInput(input));
+        if (systemId != null) {
+            source.setSystemId(systemId);
+        }
+        Document result = XmlFactories.documentBuilder().parse(source);
+        stats.addTime(Stats.Phase.PARSE, startNanos);
+
+        return result;
+    }
+
+    /**
+     * Process the specified document in memory.
+     *
+     * @param document the document to process (not null, modified)
+     */
+    void process(Document document) {
+        DocumentSorter sorter = new DocumentSorter(parameters, stats);
+        sorter.processDocument(document);
+    }
+
+    /**
+     * Read, process, and re-write the specified file. Files known to the
+     * cache to be in canonical form are skipped, and a file whose content
+     * wouldn't change isn't rewritten.
+     *
+     * @param path the path to the file (not null)
+     * @throws IOException if the file cannot be read or written
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if an unrecoverable error occurs while
+     * writing the modified document
+     * @throws XMLStreamException if a parse error occurs while using the tree
+     * model
+     */
+    void sortInPlace(Path path) throws IOException, SAXException,
+            TransformerException, XMLStreamException {
+        byte[] input = null;
+        if (cache != null) {
+            input = Files.readAllBytes(path);
+            if (cache.isCanonical(input)) {
+                stats.countCacheHits(1);
+                return;
+            }
+        }
+
+        URL url = path.toUri().toURL();
+        byte[] output = sortToBytes(url);
+        replaceFile(path, output);
+        if (cache != null) {
+            cache.put(input, output);
+        }
+    }
+
+    /**
+     * Read and process a document from the specified URL, and write the
+     * result to the specified file. A file whose content wouldn't change
+     * isn't rewritten.
+     *
+     * @param input the location of the input (not null)
+     * @param output the path to the output file (not null)
+     * @return {@code true} if the file was written, {@code false} if it was
+     * already identical
+     * @throws IOException if the input cannot be read or the output cannot be
+     * written
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if an unrecoverable error occurs while
+     * writing the modified document
+     * @throws XMLStreamException if a parse error occurs while using the tree
+     * model
+     */
+    boolean sortToFile(URL input, Path output) throws IOException,
+            SAXException, TransformerException, XMLStreamException {
+        byte[] content = sortToBytes(input);
+        boolean result = replaceFile(output, content);
+
+        return result;
+    }
+
+    /**
+     * Serialize the specified document to the specified stream. The XML
+     * declaration, the document type declaration (if any), and each
+     * top-level node are written on lines of their own, as
+     * {@link ConfigWriter} does.
+     *
+     * @param document the document to write (not null, unaffected)
+     * @param stream the stream to write to (not null)
+     * @throws TransformerException if an unrecoverable error occurs while
+     * writing the document
+     */
+    void write(Document document, OutputStream stream)
+            throws TransformerException {
+        long startNanos = System.nanoTime();
+        Writer writer = new OutputStreamWriter(
+                stats.countOutput(stream), StandardCharsets.UTF_8);
+        Transformer transformer = XmlFactories.transformer();
+        try {
+            DocumentType doctype = document.getDoctype();
+            if (doctype == null) {
+                ConfigWriter.writeProlog(writer, null, null, null);
+            } else {
+                ConfigWriter.writeProlog(writer, doctype.getName(),
+                        doctype.getPublicId(), doctype.getSystemId());
+            }
+            for (Node child = document.getFirstChild(); child != null;
+                    child = child.getNextSibling()) {
+                if (child.getNodeType() != Node.DOCUMENT_TYPE_NODE) {
+                    transformer.transform(
+                            new DOMSource(child), new StreamResult(writer));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+        } catch (IOException exception) {
+            throw new TransformerException(exception);
+        }
+        stats.addTime(Stats.Phase.SERIALIZE, startNanos);
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Replace the content of the specified file atomically, unless it's
+     * already identical.
+     *
+     * @param path the path to the file (not null)
+     * @param content the desired content (not null, unaffected)
+     * @return {@code true} if the file was written, otherwise {@code false}
+     * @throws IOException if the file cannot be written
+     */
+    private boolean replaceFile(Path path, byte[] content)
+            throws IOException {
+        boolean result;
+        try (AtomicOutputStream stream
+                = new AtomicOutputStream(path, parameters.bufferSize())) {
+            stream.write(content);
+            result = stream.commit();
+        }
+
+        return result;
+    }
+
+    /**
+     * Read and process a document from the specified URL, using the
+     * configured engine, and serialize the result to memory.
+     *
+     * @param input the location of the input (not null)
+     * @return a new array of bytes
+     * @throws IOException if the input cannot be read
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if an unrecoverable error occurs while
+     * writing the modified document
+     * @throws XMLStreamException if a parse error occurs while using the tree
+     * model
+     */
+    private byte[] sortToBytes(URL input) throws IOException, SAXException,
+            TransformerException, XMLStreamException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        if (parameters.treeModel()) {
+            treeSorter.sort(input, buffer);
+        } else {
+            Document document = parse(input);
+            process(document);
+            write(document, buffer);
+        }
+        byte[] result = buffer.toByteArray();
+
+        return result;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The module IDs of a single document, each interned to a dense int handle.
+ * For each ID, the name of the (non-suppression) module that declares it is
+ * kept in a flat array, so resolving the target of a suppression module
+ * costs an array read. An index isn't thread-safe while IDs are being added,
+ * but it may be read concurrently afterward.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class IdIndex {
+    // *************************************************************************
+    // constants
+
+    /**
+     * initial capacity of the arrays
+     */
+    final private static int initialCapacity = 16;
+    // *************************************************************************
+    // fields
+
+    /**
+     * number of IDs interned
+     */
+    private int numIds;
+    /**
+     * map from interned IDs to their handles
+     */
+    final private Map<String, Integer> handles = new HashMap<>();
+    /**
+     * interned IDs, indexed by handle
+     */
+    private String[] ids = new String[initialCapacity];
+    /**
+     * names of the modules that declare the IDs, indexed by handle, with
+     * {@code null} for IDs found only in suppression modules
+     */
+    private String[] targetNames = new String[initialCapacity];
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Record the ID of a module, interning it if it hasn't been interned
+     * already. Only a non-suppression module declares its ID; the ID of a
+     * suppression module refers to the module it suppresses.
+     *
+     * @param id the module's ID (not null, alias created)
+     * @param moduleName the module's name (not null)
+     * @param isSuppression true if the module is in the suppression group,
+     * otherwise false
+     * @return the handle of the ID (&ge;0)
+     * @throws IllegalArgumentException if another non-suppression module
+     * already declared the ID
+     */
+    int addModule(String id, String moduleName, boolean isSuppression) {
+        int result = intern(id);
+        if (!isSuppression) {
+            if (targetNames[result] != null) {
+                throw new IllegalArgumentException("Duplicate id: " + id);
+            }
+            targetNames[result] = moduleName;
+        }
+
+        return result;
+    }
+
+    /**
+     * Return the handle of the specified ID.
+     *
+     * @param id the ID to find (not null, unaffected)
+     * @return the handle (&ge;0) or -1 if the ID hasn't been interned
+     */
+    int handle(String id) {
+        Integer handle = handles.get(id);
+        int result = (handle == null) ? -1 : handle;
+
+        return result;
+    }
+
+    /**
+     * Return the ID with the specified handle.
+     *
+     * @param handle the handle of the ID (&ge;0)
+     * @return the pre-existing interned ID (not null)
+     */
+    String id(int handle) {
+        assert handle >= 0 && handle < numIds : handle;
+        String result = ids[handle];
+        return result;
+    }
+
+    /**
+     * Return the name of the (non-suppression) module that declares the ID
+     * with the specified handle.
+     *
+     * @param handle the handle of the ID (&ge;0)
+     * @return the module name, or {@code null} if the ID was found only in
+     * suppression modules
+     */
+    String targetName(int handle) {
+        assert handle >= 0 && handle < numIds : handle;
+        String result = targetNames[handle];
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Intern the specified ID, assigning it a new handle if it hasn't been
+     * interned already.
+     *
+     * @param id the ID to intern (not null, alias created)
+     * @return the handle (&ge;0)
+     */
+    private int intern(String id) {
+        Integer handle = handles.get(id);
+        if (handle != null) {
+            return handle;
+        }
+
+        int result = numIds;
+        if (result == ids.length) {
+            int newCapacity = 2 * result;
+            this.ids = Arrays.copyOf(ids, newCapacity);
+            this.targetNames = Arrays.copyOf(targetNames, newCapacity);
+        }
+        ids[result] = id;
+        handles.put(id, result);
+        ++numIds;
+
+        return result;
+    }
+}
@@ -22,26 +22,30 @@ SOFTWARE.
 package com.github.stephengold.sortcheckstyle;
 
 import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 /**
@@ -55,465 +59,572 @@ final public class Main {
     // constants
 
     /**
-     * global map from module IDs to (non-suppression) DOM nodes
+     * directory for cached results of batch runs
      */
-    final private static Map<String, Node> moduleIdToNode = new TreeMap<>();
+    final private static String cacheDirectory = ".sortcheckstyle-cache";
     /**
-     * command-line parameters
+     * default input file
      */
-    final private static Parameters parameters = new Parameters();
+    final private static String defaultInputFilename = "checkstyle-in.xml";
     /**
-     * pattern that matches one or more whitespace characters
+     * default output file
      */
-    final private static Pattern whitespacePattern = Pattern.compile("\\s+");
+    final private static String defaultOutputFilename = "checkstyle-out.xml";
     /**
-     * default input file
+     * prefix of the line that terminates each response in daemon mode
      */
-    final private static String defaultInputFilename = "checkstyle-in.xml";
+    final private static String responseTerminator = "--- exit ";
+    // *************************************************************************
+    // fields
+
+    /**
+     * command-line parameters of the current invocation
+     */
+    final private Parameters parameters;
     // *************************************************************************
     // constructors
 
     /**
-     * A private constructor to inhibit instantiation of this class.
+     * Instantiate an invocation with the specified parameters.
+     *
+     * @param parameters the parsed command-line parameters (not null, alias
+     * created)
      */
-    private Main() {
+    private Main(Parameters parameters) {
+        this.parameters = parameters;
     }
     // *************************************************************************
     // new methods exposed
 
     /**
      * Main entry point for the SortCheckstyle console application.
+     * <p>
+     * If any batch inputs are specified, every file they designate is sorted
+     * in place, reusing one parser and transformer per thread, and the
+     * application exits with status 1 if any file fails. In daemon mode,
+     * invocations are read from standard input, one per line.
      *
      * @param arguments the command-line arguments (not {@code null})
      * @throws IOException if an error occurs while reading the input document
-     * @throws ParserConfigurationException if the requested DocumentBuilder
-     * cannot be created
      * @throws SAXException if a parse error occurs
      * @throws TransformerException if an unrecoverable error occurs while
      * writing the modified document
      */
     public static void main(String[] arguments)
-            throws IOException, ParserConfigurationException,
-            SAXException, TransformerException {
-        JCommander jCommander = new JCommander(parameters);
-        jCommander.parse(arguments);
-        jCommander.setProgramName("SortCheckstyle");
-        if (parameters.helpOnly()) {
-            jCommander.usage();
-            System.exit(0);
+            throws IOException, SAXException, TransformerException {
+        int status = run(arguments, true);
+        if (status != 0) {
+            System.exit(status);
         }
+    }
+    // *************************************************************************
+    // private methods
 
-        // Create a DocumentBuilder:
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-
-        // Read and parse the document:
-        Document document;
-        if (parameters.inputUri() != null) {
-            String inputUri = parameters.inputUri();
-            System.out.printf("Reading XML from URI \"%s\" ...", inputUri);
-            document = builder.parse(inputUri);
-
+    /**
+     * Check whether the input of a single-document run is already sorted,
+     * reporting the result to the standard output.
+     *
+     * @return {@code true} if sorted, otherwise {@code false}
+     * @throws IOException if the input cannot be read
+     * @throws SAXException if a parse error occurs
+     */
+    private boolean checkInput() throws IOException, SAXException {
+        Stats stats = new Stats();
+        FileSorter fileSorter = new FileSorter(parameters, stats, null);
+        String violation = fileSorter.check(inputUrl());
+
+        String input = describeInput();
+        if (violation == null) {
+            System.out.printf("XML from %s is %s.%n",
+                    input, parameters.describeProcessing());
         } else {
-            String inputFilename = parameters.inputFilename();
-            if (inputFilename == null) {
-                inputFilename = defaultInputFilename;
-            }
-            System.out.printf(
-                    "Reading XML from file \"%s\" ...", inputFilename);
-            File inputFile = new File(inputFilename);
-            document = builder.parse(inputFile);
+            System.out.printf("XML from %s is NOT %s: %s%n",
+                    input, parameters.describeProcessing(), violation);
+        }
+        if (parameters.printStats()) {
+            stats.print(System.out);
         }
-        System.out.println(" done.");
-
-        // Process the document, making changes as we go:
-        processDocument(document);
-
-        // Write the modified document to the output file:
-        TransformerFactory tFactory = TransformerFactory.newInstance();
-        Transformer transformer = tFactory.newTransformer();
-        DOMSource source = new DOMSource(document);
 
-        String outputFilename = parameters.outputFilename();
-        String description = parameters.describeProcessing();
-        System.out.printf("Writing %s XML to file \"%s\" ...",
-                description, outputFilename);
-        StreamResult result = new StreamResult(outputFilename);
-        transformer.transform(source, result);
-        System.out.println(" done.");
+        boolean result = (violation == null);
+        return result;
     }
 
     /**
-     * Compare the specified elements, for sorting.
+     * Describe the input of a single-document run.
      *
-     * @param a the DOM node of the first element (not null, unaffected)
-     * @param b the DOM node of the 2nd element (not null, unaffected)
-     * @return -1, 0, or +1
+     * @return descriptive text (not null)
      */
-    private static int compareElements(Node a, Node b) {
-        short aType = a.getNodeType();
-        short bType = b.getNodeType();
-        assert aType == Node.ELEMENT_NODE : aType;
-        assert bType == Node.ELEMENT_NODE : bType;
-
-        // <property> then <module> then <message>:
-        String aTag = a.getNodeName();
-        String bTag = b.getNodeName();
-        int orderA = tagOrder(aTag);
-        int orderB = tagOrder(bTag);
-        if (orderA > orderB) {
-            return 1;
-        } else if (orderA < orderB) {
-            return -1;
+    private String describeInput() {
+        String result;
+        List<String> uris = parameters.inputUris();
+        if (!uris.isEmpty()) {
+            result = String.format("URI \"%s\"", uris.get(0));
+        } else {
+            result = String.format("file \"%s\"", inputFilename());
         }
 
-        if (aTag.equals("metadata")) {
-            assert bTag.equals("metadata") : bTag;
-
-            String aName = getElementName(a);
-            String bName = getElementName(b);
-
-            // Sort by metadata name:
-            int result = aName.compareTo(bName);
-            return result;
-
-        } else if (aTag.equals("module")) {
-            assert bTag.equals("module") : bTag;
-
-            String aId = getModuleId(a);
-            String aName = getElementName(a);
-            if (ModuleGroups.isInSuppressionGroup(aName) && aId != null) {
-                a = moduleIdToNode.get(aId);
-                aName = getElementName(a);
-            }
+        return result;
+    }
 
-            String bId = getModuleId(b);
-            String bName = getElementName(b);
-            if (ModuleGroups.isInSuppressionGroup(bName) && bId != null) {
-                b = moduleIdToNode.get(bId);
-                bName = getElementName(b);
+    /**
+     * Perform the current invocation.
+     *
+     * @return the exit status (0 for success)
+     * @throws IOException if an error occurs while reading the input document
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if an unrecoverable error occurs while
+     * writing the modified document
+     */
+    private int execute()
+            throws IOException, SAXException, TransformerException {
+        parameters.loadCatalog();
+
+        List<String> batchInputs = parameters.batchInputs();
+        List<String> uris = parameters.inputUris();
+        if (!batchInputs.isEmpty()) {
+            if (parameters.inputFilename() != null
+                    || parameters.outputFilename() != null
+                    || !uris.isEmpty()) {
+                throw new ParameterException(
+                        "Batch inputs can't be combined with -i, -o, or -u.");
             }
+            int numFailures = sortBatch();
+            int result = (numFailures > 0) ? 1 : 0;
+            return result;
 
-            int groupA = ModuleGroups.moduleGroup(aName);
-            int groupB = ModuleGroups.moduleGroup(bName);
-            if (groupA > groupB) {
-                return 1;
-            } else if (groupA < groupB) {
-                return -1;
+        } else if (uris.size() > 1) {
+            if (parameters.inputFilename() != null
+                    || parameters.outputFilename() != null) {
+                throw new ParameterException(
+                        "Multiple URIs can't be combined with -i or -o.");
             }
+            int numFailures = sortUris();
+            int result = (numFailures > 0) ? 1 : 0;
+            return result;
+        }
 
-            // Within groups, sort by module name:
-            int result = aName.compareTo(bName);
-            if (result != 0) {
-                return result;
-            }
+        if (parameters.checkOnly()) {
+            boolean isSorted = checkInput();
+            int result = isSorted ? 0 : 1;
+            return result;
 
-            // If 2 modules have the same name, sort by ID:
-            if (aId != null && bId != null) {
-                result = aId.compareTo(bId);
+        } else if (parameters.treeModel()) {
+            try {
+                sortWithTree();
+            } catch (XMLStreamException exception) {
+                // Report StAX errors as parse errors:
+                throw new SAXException(exception);
             }
-            return result;
+            return 0;
+        }
 
-        } else if (aTag.equals("message")) {
-            assert bTag.equals("message") : bTag;
+        // Read and parse the document:
+        Stats stats = new Stats();
+        FileSorter fileSorter = new FileSorter(parameters, stats, null);
+        System.out.printf("Reading XML from %s ...", describeInput());
+        Document document = fileSorter.parse(inputUrl());
+        System.out.println(" done.");
 
-            // Sort by message key:
-            String aKey = DomUtils.getElementAttribute(a, "key");
-            String bKey = DomUtils.getElementAttribute(b, "key");
-            return aKey.compareTo(bKey);
+        // Process the document, making changes as we go:
+        fileSorter.process(document);
 
-        } else {
-            assert aTag.equals("property") : aTag;
-            assert bTag.equals("property") : bTag;
+        // Write the modified document to the output file:
+        String outputFilename = outputFilename();
+        String description = parameters.describeProcessing();
+        System.out.printf("Writing %s XML to file \"%s\" ...",
+                description, outputFilename);
+        Path outputPath = Paths.get(outputFilename);
+        boolean isChanged;
+        try (AtomicOutputStream stream = new AtomicOutputStream(
+                outputPath, parameters.bufferSize())) {
+            fileSorter.write(document, stream);
+            isChanged = stream.commit();
+        }
+        System.out.println(isChanged ? " done." : " unchanged.");
 
-            // Sort by property name:
-            String aName = getElementName(a);
-            String bName = getElementName(b);
-            return aName.compareTo(bName);
+        if (parameters.printStats()) {
+            stats.print(System.out);
         }
+
+        return 0;
     }
 
     /**
-     * Compress any whitespace in the message/property values of the specified
-     * module.
+     * Return the name of the input file.
      *
-     * @param module the DOM node of the module (not null)
+     * @return the specified filename, or the default if none was specified
+     * (not null)
      */
-    private static void compressWhitespace(Node module) {
-        short nodeType = module.getNodeType();
-        assert nodeType == Node.ELEMENT_NODE : nodeType;
-        String tag = module.getNodeName();
-        assert tag.equals("module") : tag;
-
-        NodeList list = module.getChildNodes();
-        int length = list.getLength();
-        for (int i = 0; i < length; ++i) {
-            Node child = list.item(i);
-            String childTag = child.getNodeName();
-            if (childTag.equals("message") || childTag.equals("property")) {
-                String value = DomUtils.getElementAttribute(child, "value");
-                if (value != null) {
-                    Matcher m = whitespacePattern.matcher(value);
-                    if (m.find()) {
-                        value = m.replaceAll(" ");
-                        DomUtils.setElementAttribute(child, "value", value);
-                    }
-                }
-            }
+    private String inputFilename() {
+        String result = parameters.inputFilename();
+        if (result == null) {
+            result = defaultInputFilename;
         }
+
+        return result;
     }
 
     /**
-     * Return the "name" attribute of the specified element.
+     * Return the location of the input of a single-document run. If a mirror
+     * directory was specified, a URI input is fetched into the mirror first.
      *
-     * @param element the element's DOM node (not null, unaffected)
-     * @return the attribute value, or {@code null} if the element lacks the
-     * "name" attribute
+     * @return a new URL
+     * @throws IOException if the URI is malformed or cannot be mirrored
      */
-    private static String getElementName(Node element) {
-        String result = DomUtils.getElementAttribute(element, "name");
+    private URL inputUrl() throws IOException {
+        URL result;
+        List<String> uris = parameters.inputUris();
+        String mirror = parameters.mirrorDirectory();
+        if (!uris.isEmpty() && mirror != null) {
+            UriFetcher fetcher = new UriFetcher(Paths.get(mirror));
+            Path copy = fetcher.fetch(uris.get(0));
+            result = copy.toUri().toURL();
+        } else if (!uris.isEmpty()) {
+            result = new URL(uris.get(0));
+        } else {
+            File file = new File(inputFilename());
+            result = file.toURI().toURL();
+        }
+
         return result;
     }
 
     /**
-     * Return the ID of the specified module.
+     * Return the name of the output file.
      *
-     * @param module the module's DOM node (not null, unaffected)
-     * @return the "id" property value, or {@code null} if the module lacks an
-     * "id" property
+     * @return the specified filename, or the default if none was specified
+     * (not null)
      */
-    private static String getModuleId(Node module) {
-        int nodeType = module.getNodeType();
-        assert nodeType == Node.ELEMENT_NODE : "nodeType = " + nodeType;
-
-        NodeList children = module.getChildNodes();
-        int numChildren = children.getLength();
-
-        for (int i = 0; i < numChildren; ++i) {
-            Node child = children.item(i);
-            short childType = child.getNodeType();
-            if (childType == Node.ELEMENT_NODE) {
-                String tagName = child.getNodeName();
-                if (tagName.equals("property")) {
-                    String elementName = getElementName(child);
-                    if (elementName.equals("id")) {
-                        String result
-                                = DomUtils.getElementAttribute(child, "value");
-                        return result;
-                    }
-                }
-            }
+    private String outputFilename() {
+        String result = parameters.outputFilename();
+        if (result == null) {
+            result = defaultOutputFilename;
         }
 
-        return null;
+        return result;
     }
 
     /**
-     * Initialize the global map from module IDs to DOM nodes.
+     * Parse the specified arguments and perform the invocation they describe.
      *
-     * @param document the document to process (not null, unaffected)
+     * @param arguments the command-line arguments (not null, unaffected)
+     * @param allowDaemon true to permit daemon mode, false to forbid it
+     * @return the exit status (0 for success)
+     * @throws IOException if an error occurs while reading the input document
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if an unrecoverable error occurs while
+     * writing the modified document
      */
-    private static void initializeIdMap(Document document) {
-        NodeList allModules = document.getElementsByTagName("module");
-        int numModules = allModules.getLength();
-        for (int i = 0; i < numModules; ++i) {
-            Node module = allModules.item(i);
-            String moduleName = getElementName(module);
-
-            // Ignore any IDs found in suppression modules:
-            if (!ModuleGroups.isInSuppressionGroup(moduleName)) {
-
-                String moduleId = getModuleId(module);
-                if (moduleId != null) {
-                    Node previousNode = moduleIdToNode.put(moduleId, module);
-                    assert previousNode == null : "Duplicate id: " + moduleId;
-                }
-            }
+    private static int run(String[] arguments, boolean allowDaemon)
+            throws IOException, SAXException, TransformerException {
+        Parameters parameters = new Parameters();
+        JCommander jCommander = new JCommander(parameters);
+        jCommander.parse(arguments);
+        jCommander.setProgramName("SortCheckstyle");
+        if (parameters.helpOnly()) {
+            jCommander.usage();
+            return 0;
+        }
 
+        if (parameters.daemon()) {
+            if (!allowDaemon) {
+                throw new ParameterException("Already running as a daemon.");
+            }
+            serve();
+            return 0;
         }
+
+        Main invocation = new Main(parameters);
+        int result = invocation.execute();
+
+        return result;
     }
 
     /**
-     * Return the sort index of the specified node type, when sorting a module's
-     * children.
+     * Serve invocations read from standard input until end of input, reusing
+     * the same JVM, parsers, and serializers. Each line holds the arguments of
+     * one invocation, separated by tabs. The response is the usual console
+     * output followed by a line containing the terminator and the exit status.
+     * An invocation that fails for any reason (such as an unknown module) is
+     * reported with exit status 1, and the daemon continues.
      *
-     * @param nodeType the type of the child node
-     * @return the index
+     * @throws IOException if standard input cannot be read
      */
-    private static int nodeTypeOrder(int nodeType) {
-        switch (nodeType) {
-            // element before text
-            case Node.ELEMENT_NODE:
-                return 1;
-            case Node.TEXT_NODE:
-                return 2;
-            default:
-                throw new IllegalArgumentException("nodeType = " + nodeType);
+    private static void serve() throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] arguments = line.split("\t");
+            int status;
+            try {
+                status = run(arguments, false);
+            } catch (IOException | ParameterException | SAXException
+                    | TransformerException exception) {
+                System.out.println();
+                System.out.println("ERROR: " + exception.getMessage());
+                status = 1;
+
+            } catch (AssertionError | RuntimeException exception) {
+                // Bad input mustn't kill the daemon, even with assertions
+                // enabled:
+                System.out.println();
+                System.out.println("ERROR: " + exception);
+                status = 1;
+            }
+            System.out.println(responseTerminator + status);
+            System.out.flush();
         }
     }
 
     /**
-     * Dump the specified NodeList to the standard output, to assist with
-     * debugging.
+     * Sort (or check) each file designated by the batch inputs in place,
+     * reporting the status of each file to the standard output. Files are
+     * processed concurrently if more than one thread was requested.
      *
-     * @param list the list to dump (not null, unaffected)
+     * @return the number of inputs that designate no files plus the number of
+     * files that couldn't be sorted (or, when checking, weren't sorted)
+     * @throws IOException if the batch inputs can't be expanded or the cache
+     * can't be read or written
      */
-    private static void printNodeList(NodeList list) {
-        System.out.println("NodeList:");
-        int numNodes = list.getLength();
-        for (int i = 0; i < numNodes; ++i) {
-            Node node = list.item(i);
-            short nodeType = node.getNodeType();
-            if (nodeType == Node.COMMENT_NODE) {
-                String comment = node.getNodeValue();
-                System.out.println("  comment: " + comment);
-
-            } else if (nodeType == Node.ELEMENT_NODE) {
-                String tagName = node.getNodeName();
-                switch (tagName) {
-                    case "module":
-                    case "property":
-                        String elementName = getElementName(node);
-                        if (tagName.equals("module")) {
-                            int group = ModuleGroups.moduleGroup(elementName);
-                            System.out.printf(" [group %d]", group);
-                            String id = getModuleId(node);
-                            if (id != null) {
-                                System.out.printf(" [id=%s]", id);
-                            }
-                        }
-                        System.out.printf(
-                                " <%s name=%s>%n", tagName, elementName);
-                        break;
-                    default:
-                        throw new RuntimeException(
-                                "Unexpected element, tagName = " + tagName);
+    private int sortBatch() throws IOException {
+        List<String> unmatched = new ArrayList<>();
+        List<Path> paths = BatchInputs.expand(parameters.batchInputs(),
+                parameters.includeGlob(), unmatched);
+        int numThreads = parameters.numThreads();
+        Stats stats = new Stats();
+        ResultCache cache = null;
+        if (parameters.cacheResults()) {
+            cache = new ResultCache(Paths.get(cacheDirectory), parameters);
+        }
+
+        // Create one FileSorter per thread:
+        BlockingQueue<FileSorter> idleSorters
+                = new ArrayBlockingQueue<>(numThreads);
+        for (int i = 0; i < numThreads; ++i) {
+            FileSorter sorter = new FileSorter(parameters, stats, cache);
+            idleSorters.add(sorter);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        List<Future<String>> futures = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            Future<String> future = executor.submit(() -> {
+                FileSorter sorter = idleSorters.take();
+                try {
+                    if (parameters.checkOnly()) {
+                        return sorter.check(path);
+                    }
+                    sorter.sortInPlace(path);
+                    return null;
+                } finally {
+                    idleSorters.put(sorter);
+                }
+            });
+            futures.add(future);
+        }
+        executor.shutdown();
+
+        // Report each input that designates no files, then the status of
+        // each file, in order:
+        int numFailures = 0;
+        for (String input : unmatched) {
+            System.out.printf("%s: FAILED (matches no files)%n", input);
+            ++numFailures;
+        }
+        String description = parameters.describeProcessing();
+        for (int i = 0; i < paths.size(); ++i) {
+            Path path = paths.get(i);
+            try {
+                String violation = futures.get(i).get();
+                if (violation == null) {
+                    System.out.printf("%s: %s%n", path, description);
+                } else {
+                    System.out.printf("%s: NOT %s (%s)%n",
+                            path, description, violation);
+                    ++numFailures;
                 }
 
-            } else if (nodeType == Node.TEXT_NODE) {
-                System.out.println("  text");
+            } catch (ExecutionException exception) {
+                Throwable cause = exception.getCause();
+                System.out.printf("%s: FAILED (%s)%n", path, cause);
+                ++numFailures;
 
-            } else {
-                throw new RuntimeException(
-                        "Unexpected node, type = " + nodeType);
+            } catch (InterruptedException exception) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", exception);
             }
         }
+        if (cache != null) {
+            cache.save();
+        }
+        System.out.printf("Processed %d file(s) with %d failure(s).%n",
+                paths.size(), numFailures);
+        if (parameters.printStats()) {
+            stats.print(System.out);
+        }
+
+        return numFailures;
     }
 
     /**
-     * Process the specified document in memory.
+     * Sort (or check) a single document fetched from a URI, reporting the
+     * outcome to the standard output.
      *
-     * @param document the document to process (not null, modified)
+     * @param sorter the sorter to use (not null)
+     * @param uri the URI of the document (not null)
+     * @param copy the location of the fetched copy (not null)
+     * @param outputFilename the name of the output file (not null unless
+     * checking)
+     * @return {@code true} if successful, {@code false} if the document
+     * isn't sorted (when checking)
+     * @throws IOException if the input cannot be read or the output cannot be
+     * written
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if the output cannot be serialized
+     * @throws XMLStreamException if a parse error occurs while using the tree
+     * model
      */
-    private static void processDocument(Document document) {
-        initializeIdMap(document);
-
-        NodeList allModules = document.getElementsByTagName("module");
-        int numModules = allModules.getLength();
-
-        if (parameters.compressWhitespace()) {
-            for (int i = 0; i < numModules; ++i) {
-                Node module = allModules.item(i);
-                compressWhitespace(module);
+    private boolean sortUri(FileSorter sorter, String uri, URL copy,
+            String outputFilename) throws IOException, SAXException,
+            TransformerException, XMLStreamException {
+        String description = parameters.describeProcessing();
+        if (parameters.checkOnly()) {
+            String violation = sorter.check(copy);
+            if (violation == null) {
+                System.out.printf("%s: %s%n", uri, description);
+                return true;
             }
+            System.out.printf("%s: NOT %s (%s)%n", uri, description, violation);
+            return false;
         }
 
-        // Re-order the children of each module:
-        for (int i = 0; i < numModules; ++i) {
-            Node module = allModules.item(i);
-            sortModuleChildren(module);
-        }
+        Path outputPath = Paths.get(outputFilename);
+        boolean isChanged = sorter.sortToFile(copy, outputPath);
+        System.out.printf("%s: %s XML %s \"%s\"%n", uri, description,
+                isChanged ? "written to" : "unchanged in", outputFilename);
+
+        return true;
     }
 
     /**
-     * Re-order the attributes and children of the specified module.
+     * Sort (or check) the documents designated by multiple URIs, writing
+     * each result to a file named after the last segment of its URI's path.
+     * If 2 URIs would yield the same filename (ignoring case), nothing is
+     * sorted. The URIs are fetched concurrently into the mirror directory (or a
+     * temporary directory if none was specified), and each document is
+     * processed as soon as its copy is available.
      *
-     * @param module the DOM node of the module (not null)
+     * @return the number of documents that couldn't be sorted (or, when
+     * checking, weren't sorted)
+     * @throws IOException if the mirror directory can't be created or
+     * cleaned up
      */
-    private static void sortModuleChildren(Node module) {
-        short nodeType = module.getNodeType();
-        assert nodeType == Node.ELEMENT_NODE : nodeType;
-        String tag = module.getNodeName();
-        assert tag.equals("module") : tag;
-
-        Comparator<Node> comparator = (Node a, Node b) -> {
-            // Keep each comment/text with its following module/property:
-            short aType = a.getNodeType();
-            while ((aType == Node.COMMENT_NODE || aType == Node.TEXT_NODE)
-                    && a.getNextSibling() != null) {
-                a = a.getNextSibling();
-                aType = a.getNodeType();
-            }
-
-            short bType = b.getNodeType();
-            while ((bType == Node.COMMENT_NODE || bType == Node.TEXT_NODE)
-                    && b.getNextSibling() != null) {
-                b = b.getNextSibling();
-                bType = b.getNodeType();
-            }
-
-            // element before text:
-            int orderA = nodeTypeOrder(aType);
-            int orderB = nodeTypeOrder(bType);
-            if (orderA > orderB) {
-                return 1;
-            } else if (orderA < orderB) {
-                return -1;
+    private int sortUris() throws IOException {
+        List<String> uris = parameters.inputUris();
+        List<String> outputFilenames = new ArrayList<>(uris.size());
+        Set<String> foldedFilenames = new HashSet<>(uris.size());
+        for (String uri : uris) {
+            // Checking writes no output, so output filenames aren't needed:
+            String filename = null;
+            if (!parameters.checkOnly()) {
+                filename = UriFetcher.lastSegment(uri);
+                // Names that differ only in case collide on some filesystems:
+                String folded = filename.toLowerCase(Locale.ROOT);
+                if (filename.isEmpty() || !foldedFilenames.add(folded)) {
+                    throw new ParameterException("Can't derive a distinct "
+                            + "output filename from URI \"" + uri + "\".");
+                }
             }
+            outputFilenames.add(filename);
+        }
 
-            // same type
-            if (aType == Node.ELEMENT_NODE) {
-                assert bType == Node.ELEMENT_NODE : bType;
+        String mirror = parameters.mirrorDirectory();
+        Path mirrorPath = (mirror == null)
+                ? Files.createTempDirectory("sortcheckstyle")
+                : Paths.get(mirror);
+        UriFetcher fetcher = new UriFetcher(mirrorPath);
+        List<Future<Path>> futures = fetcher.fetchAll(uris);
+
+        Stats stats = new Stats();
+        FileSorter sorter = new FileSorter(parameters, stats, null);
+        int numFailures = 0;
+        try {
+            for (int i = 0; i < uris.size(); ++i) {
+                String uri = uris.get(i);
+                try {
+                    URL copy = futures.get(i).get().toUri().toURL();
+                    if (!sortUri(sorter, uri, copy, outputFilenames.get(i))) {
+                        ++numFailures;
+                    }
 
-                int result = compareElements(a, b);
-                return result;
+                } catch (ExecutionException exception) {
+                    Throwable cause = exception.getCause();
+                    System.out.printf("%s: FAILED (%s)%n", uri, cause);
+                    ++numFailures;
 
-            } else {
-                assert aType == Node.TEXT_NODE : aType;
-                assert bType == Node.TEXT_NODE : bType;
+                } catch (IOException | RuntimeException | SAXException
+                        | TransformerException | XMLStreamException exception) {
+                    System.out.printf("%s: FAILED (%s)%n", uri, exception);
+                    ++numFailures;
 
-                // Preserve the original order:
-                return 0;
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", exception);
+                }
+            }
+        } finally {
+            if (mirror == null) {
+                // Wait for any downloads in progress, then delete the
+                // temporary copies:
+                fetcher.cancelFetches();
+                fetcher.deleteMirror();
             }
-        };
-
-        if (parameters.sortAttributes()) {
-            // Sort the module's attributes:
-            NamedNodeMap attributeMap = module.getAttributes();
-            Node[] attributeArray = DomUtils.toArray(attributeMap);
-            Arrays.sort(attributeArray, comparator);
-            DomUtils.setAttributesFromArray(module, attributeArray);
         }
 
-        if (parameters.sortAttributes()) {
-            // Sort the module's children:
-            NodeList childList = module.getChildNodes();
-            Node[] childArray = DomUtils.toArray(childList);
-            Arrays.sort(childArray, comparator);
-            DomUtils.setChildrenFromArray(module, childArray);
+        System.out.printf("Fetched %d URI(s): %d downloaded, %d not "
+                + "modified, %d stale, %d failure(s).%n", uris.size(),
+                fetcher.countDownloaded(), fetcher.countNotModified(),
+                fetcher.countStale(), numFailures);
+        if (parameters.printStats()) {
+            stats.print(System.out);
         }
+
+        return numFailures;
     }
 
     /**
-     * Return the sort index of the specified tag when sorting a module's
-     * children.
+     * Sort the input document using the compact tree model, and write the
+     * result to the output file.
      *
-     * @param tag the tag of the child node
-     * @return the index
+     * @throws IOException if the input cannot be read or the output cannot be
+     * written
+     * @throws XMLStreamException if a parse error occurs
      */
-    private static int tagOrder(String tag) {
-        switch (tag) {
-            // <metadata> then <property> then <module> then <message>:
-            case "metadata":
-                return 0;
-            case "property":
-                return 1;
-            case "module":
-                return 2;
-            case "message":
-                return 3;
-            default:
-                throw new IllegalArgumentException("tag=" + tag);
+    private void sortWithTree() throws IOException, XMLStreamException {
+        String outputFilename = outputFilename();
+        String description = parameters.describeProcessing();
+        System.out.printf("Reading XML from %s and writing %s XML to file "
+                + "\"%s\" ...", describeInput(), description, outputFilename);
+
+        Stats stats = new Stats();
+        Path outputPath = Paths.get(outputFilename);
+        boolean isChanged;
+        try (AtomicOutputStream stream = new AtomicOutputStream(
+                outputPath, parameters.bufferSize())) {
+            TreeSorter sorter = new TreeSorter(parameters, stats);
+            sorter.sort(inputUrl(), stream);
+            isChanged = stream.commit();
+        }
+        System.out.println(isChanged ? " done." : " unchanged.");
+
+        if (parameters.printStats()) {
+            stats.print(System.out);
         }
     }
 }
@@ -21,39 +21,326 @@ SOFTWARE.
  */
 package com.github.stephengold.sortcheckstyle;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
 /**
- * Encode module names into groups.
+ * An immutable table that encodes module names into groups: either the
+ * built-in modules alone or the built-in modules merged with a catalog.
+ * Instances are thread-safe.
  *
  * @author Stephen Gold sgold@sonic.net
  */
 final class ModuleGroups {
+    // *************************************************************************
+    // enums
+
+    /**
+     * Enumerate the categories of Checkstyle modules, in canonical order.
+     */
+    enum Category {
+        /**
+         * root module
+         */
+        CHECKER(0, "root module", "Checker"),
+        /**
+         * annotations
+         */
+        ANNOTATIONS(1, "annotations",
+                "AnnotationLocation", "AnnotationOnSameLine",
+                "AnnotationUseStyle", "MissingDeprecated", "MissingOverride",
+                "MissingOverrideOnRecordAccessor", "PackageAnnotation",
+                "SuppressWarnings", "SuppressWarningsHolder"),
+        /**
+         * block checks
+         */
+        BLOCKS(2, "block checks",
+                "AvoidNestedBlocks", "EmptyBlock", "EmptyCatchBlock",
+                "LeftCurly", "NeedBraces", "RightCurly"),
+        /**
+         * class design
+         */
+        CLASS_DESIGN(3, "class design",
+                "DesignForExtension", "FinalClass",
+                "HideUtilityClassConstructor", "InnerTypeLast",
+                "InterfaceIsType", "MutableException", "OneTopLevelClass",
+                "SealedShouldHavePermitsList", "ThrowsCount",
+                "VisibilityModifier"),
+        /**
+         * coding
+         */
+        CODING(4, "coding",
+                "ArrayTrailingComma", "AvoidDoubleBraceInitialization",
+                "AvoidInlineConditionals",
+                "AvoidNoArgumentSuperConstructorCall",
+                "ConstructorsDeclarationGrouping", "CovariantEquals",
+                "DeclarationOrder", "DefaultComesLast", "EmptyStatement",
+                "EqualsAvoidNull", "EqualsHashCode", "ExplicitInitialization",
+                "FallThrough", "FinalLocalVariable", "HiddenField",
+                "IllegalCatch", "IllegalInstantiation", "IllegalSymbol",
+                "IllegalThrows", "IllegalToken", "IllegalTokenText",
+                "IllegalType", "InnerAssignment", "MagicNumber", "MatchXpath",
+                "MissingCtor", "MissingNullCaseInSwitch",
+                "MissingSwitchDefault", "ModifiedControlVariable",
+                "MultipleStringLiterals", "MultipleVariableDeclarations",
+                "NestedForDepth", "NestedIfDepth", "NestedTryDepth",
+                "NoArrayTrailingComma", "NoClone", "NoEnumTrailingComma",
+                "NoFinalizer", "OneStatementPerLine",
+                "OverloadMethodsDeclarationOrder", "PackageDeclaration",
+                "ParameterAssignment", "PatternVariableAssignment",
+                "RequireThis", "ReturnCount", "SimplifyBooleanExpression",
+                "SimplifyBooleanReturn", "StringLiteralEquality", "SuperClone",
+                "SuperFinalize", "TextBlockGoogleStyleFormatting",
+                "UnnecessaryNullCheckWithInstanceOf", "UnnecessaryParentheses",
+                "UnnecessarySemicolonAfterOuterTypeDeclaration",
+                "UnnecessarySemicolonAfterTypeMemberDeclaration",
+                "UnnecessarySemicolonInEnumeration",
+                "UnnecessarySemicolonInTryWithResources",
+                "UnusedCatchParameterShouldBeUnnamed",
+                "UnusedLambdaParameterShouldBeUnnamed", "UnusedLocalVariable",
+                "UnusedTryResourceShouldBeUnnamed", "UseEnhancedSwitch",
+                "VariableDeclarationUsageDistance", "WhenShouldBeUsed"),
+        /**
+         * headers
+         */
+        HEADERS(5, "headers",
+                "Header", "MultiFileRegexpHeader", "RegexpHeader"),
+        /**
+         * imports
+         */
+        IMPORTS(6, "imports",
+                "AvoidStarImport", "AvoidStaticImport", "CustomImportOrder",
+                "IllegalImport", "ImportControl", "ImportOrder",
+                "RedundantImport", "UnusedImports"),
+        /**
+         * javadoc comments
+         */
+        JAVADOC(7, "javadoc comments",
+                "AtclauseOrder", "InvalidJavadocPosition",
+                "JavadocBlockTagLocation", "JavadocContentLocation",
+                "JavadocLeadingAsteriskAlign", "JavadocMethod",
+                "JavadocMissingLeadingAsterisk",
+                "JavadocMissingWhitespaceAfterAsterisk", "JavadocPackage",
+                "JavadocParagraph", "JavadocStyle",
+                "JavadocTagContinuationIndentation", "JavadocType",
+                "JavadocVariable", "MissingJavadocMethod",
+                "MissingJavadocPackage", "MissingJavadocType",
+                "NonEmptyAtclauseDescription",
+                "RequireEmptyLineBeforeBlockTagGroup", "SingleLineJavadoc",
+                "SummaryJavadoc", "WriteTag"),
+        /**
+         * metrics
+         */
+        METRICS(8, "metrics",
+                "BooleanExpressionComplexity", "ClassDataAbstractionCoupling",
+                "ClassFanOutComplexity", "CyclomaticComplexity", "JavaNCSS",
+                "NPathComplexity"),
+        /**
+         * miscellaneous
+         */
+        MISCELLANEOUS(9, "miscellaneous",
+                "ArrayTypeStyle", "AvoidEscapedUnicodeCharacters",
+                "CommentsIndentation", "DescendantToken", "FinalParameters",
+                "HexLiteralCase", "Indentation", "LineEnding",
+                "NewlineAtEndOfFile", "NoCodeInFile",
+                "NumericalPrefixesInfixesSuffixesCharacterCase",
+                "OrderedProperties", "OuterTypeFilename", "TodoComment",
+                "TrailingComment", "Translation", "UncommentedMain",
+                "UniqueProperties", "UpperEll"),
+        /**
+         * modifiers
+         */
+        MODIFIERS(10, "modifiers",
+                "ClassMemberImpliedModifier", "InterfaceMemberImpliedModifier",
+                "ModifierOrder", "RedundantModifier"),
+        /**
+         * naming conventions
+         */
+        NAMING(11, "naming conventions",
+                "AbbreviationAsWordInName", "AbstractClassName",
+                "CatchParameterName", "ClassTypeParameterName", "ConstantName",
+                "GoogleNonConstantFieldName", "IllegalIdentifierName",
+                "InterfaceTypeParameterName", "LambdaParameterName",
+                "LocalFinalVariableName", "LocalVariableName", "MemberName",
+                "MethodName", "MethodTypeParameterName", "PackageName",
+                "ParameterName", "PatternVariableName", "RecordComponentName",
+                "RecordTypeParameterName", "StaticVariableName", "TypeName"),
+        /**
+         * regexp checks
+         */
+        REGEXP(12, "regexp checks",
+                "Regexp", "RegexpMultiline", "RegexpOnFilename",
+                "RegexpSingleline", "RegexpSinglelineJava"),
+        /**
+         * size violations
+         */
+        SIZES(13, "size violations",
+                "AnonInnerLength", "ExecutableStatementCount", "FileLength",
+                "LambdaBodyLength", "LineLength", "MethodCount", "MethodLength",
+                "OuterTypeNumber", "ParameterNumber", "RecordComponentNumber"),
+        /**
+         * whitespace
+         */
+        WHITESPACE(14, "whitespace",
+                "EmptyForInitializerPad", "EmptyForIteratorPad",
+                "EmptyLineSeparator", "FileTabCharacter", "GenericWhitespace",
+                "MethodParamPad", "NoLineWrap", "NoWhitespaceAfter",
+                "NoWhitespaceBefore", "NoWhitespaceBeforeCaseDefaultColon",
+                "OperatorWrap", "ParenPad", "SeparatorWrap",
+                "SingleSpaceSeparator", "TypecastParenPad", "WhitespaceAfter",
+                "WhitespaceAround"),
+        /**
+         * non-file filters
+         */
+        FILTERS(15, "non-file filters",
+                "SeverityMatchFilter", "SuppressWarningsFilter",
+                "SuppressWithNearbyCommentFilter",
+                "SuppressWithNearbyTextFilter",
+                "SuppressWithPlainTextCommentFilter",
+                "SuppressionCommentFilter", "SuppressionFilter",
+                "SuppressionSingleFilter", "SuppressionXpathFilter",
+                "SuppressionXpathSingleFilter"),
+        /**
+         * file filters
+         */
+        FILE_FILTERS(16, "file filters", "BeforeExecutionExclusionFileFilter"),
+        /**
+         * tree walker
+         */
+        TREE_WALKER(99, "tree walker", "TreeWalker");
+
+        /**
+         * description for reports (not null)
+         */
+        final private String description;
+        /**
+         * group index, which determines the order of sibling modules
+         */
+        final private int group;
+        /**
+         * names of the built-in modules in this category (not null)
+         */
+        final private String[] moduleNames;
+
+        /**
+         * Instantiate a category with the specified properties.
+         *
+         * @param group the group index
+         * @param description the description for reports (not null)
+         * @param moduleNames the names of the built-in modules in the
+         * category (not null)
+         */
+        Category(int group, String description, String... moduleNames) {
+            this.group = group;
+            this.description = description;
+            this.moduleNames = moduleNames;
+        }
+
+        /**
+         * Return the description of this category.
+         *
+         * @return descriptive text (not null)
+         */
+        String description() {
+            return description;
+        }
+
+        /**
+         * Return the group index of this category.
+         *
+         * @return the index (&ge;0)
+         */
+        int group() {
+            return group;
+        }
+    }
     // *************************************************************************
     // constants
 
     /**
-     * index of the group to which non-file suppression modules belong
+     * table of the built-in modules only, built once (not null)
      */
-    final private static int suppressionGroup = 15;
+    final private static ModuleGroups builtIn;
+
+    static {
+        Map<String, Category> map = new HashMap<>(512);
+        for (Category category : Category.values()) {
+            for (String moduleName : category.moduleNames) {
+                Category previous = map.put(moduleName, category);
+                assert previous == null : moduleName;
+            }
+        }
+        builtIn = new ModuleGroups(map);
+    }
+    // *************************************************************************
+    // fields
+
+    /**
+     * map module names to categories (not null, unmodifiable)
+     */
+    final private Map<String, Category> nameToCategory;
     // *************************************************************************
     // constructors
 
     /**
-     * A private constructor to inhibit instantiation of this class.
+     * Instantiate a table with the specified mappings.
+     *
+     * @param nameToCategory the map from module names to categories (not
+     * null, unaffected)
      */
-    private ModuleGroups() {
+    private ModuleGroups(Map<String, Category> nameToCategory) {
+        this.nameToCategory = Collections.unmodifiableMap(
+                new HashMap<>(nameToCategory));
     }
     // *************************************************************************
     // new methods exposed
 
+    /**
+     * Access the table of built-in modules.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    static ModuleGroups builtIn() {
+        return builtIn;
+    }
+
+    /**
+     * Return the category to which the specified module belongs.
+     *
+     * @param moduleName the name of a Checkstyle module
+     * @return the pre-existing category (not null)
+     * @throws IllegalArgumentException if the module isn't in this table
+     */
+    Category category(String moduleName) {
+        Category result = nameToCategory.get(moduleName);
+        if (result == null) {
+            String message
+                    = String.format("Unknown module \"%s\" (a catalog "
+                            + "can assign it to a category)", moduleName);
+            throw new IllegalArgumentException(message);
+        }
+
+        return result;
+    }
+
     /**
      * Test whether the specified module is in the non-file suppression group.
      *
      * @param moduleName the name of a Checkstyle module
      * @return {@code true} if it's in the group, otherwise {@code false}
+     * @throws IllegalArgumentException if the module isn't in this table
      */
-    static boolean isInSuppressionGroup(String moduleName) {
-        int groupIndex = moduleGroup(moduleName);
-        if (groupIndex == suppressionGroup) {
+    boolean isInSuppressionGroup(String moduleName) {
+        Category category = category(moduleName);
+        if (category == Category.FILTERS) {
             return true;
         } else {
             return false;
@@ -61,270 +348,59 @@ final class ModuleGroups {
     }
 
     /**
-     * Return the group to which the specified module belongs.
+     * Load a table that merges the specified catalog over the built-in
+     * modules. The catalog is a properties file that maps module names to
+     * category names, for instance "MyCustomCheck = CODING".
      *
-     * @param moduleName the name of a Checkstyle module
-     * @return the module's group index
+     * @param catalogPath the path to the catalog file, or null for the
+     * built-in modules only
+     * @return a new table, or the built-in table if {@code catalogPath} is
+     * null
+     * @throws IOException if the catalog cannot be read or names an unknown
+     * category
      */
-    static int moduleGroup(String moduleName) {
-        switch (moduleName) {
-            case "Checker":
-                return 0;
-
-            case "AnnotationLocation":
-            case "AnnotationOnSameLine":
-            case "AnnotationUseStyle":
-            case "MissingDeprecated":
-            case "MissingOverride":
-            case "MissingOverrideOnRecordAccessor":
-            case "PackageAnnotation":
-            case "SuppressWarnings":
-            case "SuppressWarningsHolder":
-                return 1; // annotations
-
-            case "AvoidNestedBlocks":
-            case "EmptyBlock":
-            case "EmptyCatchBlock":
-            case "LeftCurly":
-            case "NeedBraces":
-            case "RightCurly":
-                return 2; // block checks
-
-            case "DesignForExtension":
-            case "FinalClass":
-            case "HideUtilityClassConstructor":
-            case "InnerTypeLast":
-            case "InterfaceIsType":
-            case "MutableException":
-            case "OneTopLevelClass":
-            case "SealedShouldHavePermitsList":
-            case "ThrowsCount":
-            case "VisibilityModifier":
-                return 3; // class design
-
-            case "ArrayTrailingComma":
-            case "AvoidDoubleBraceInitialization":
-            case "AvoidInlineConditionals":
-            case "AvoidNoArgumentSuperConstructorCall":
-            case "ConstructorsDeclarationGrouping":
-            case "CovariantEquals":
-            case "DeclarationOrder":
-            case "DefaultComesLast":
-            case "EmptyStatement":
-            case "EqualsAvoidNull":
-            case "EqualsHashCode":
-            case "ExplicitInitialization":
-            case "FallThrough":
-            case "FinalLocalVariable":
-            case "HiddenField":
-            case "IllegalCatch":
-            case "IllegalInstantiation":
-            case "IllegalSymbol":
-            case "IllegalThrows":
-            case "IllegalToken":
-            case "IllegalTokenText":
-            case "IllegalType":
-            case "InnerAssignment":
-            case "MagicNumber":
-            case "MatchXpath":
-            case "MissingCtor":
-            case "MissingNullCaseInSwitch":
-            case "MissingSwitchDefault":
-            case "ModifiedControlVariable":
-            case "MultipleStringLiterals":
-            case "MultipleVariableDeclarations":
-            case "NestedForDepth":
-            case "NestedIfDepth":
-            case "NestedTryDepth":
-            case "NoArrayTrailingComma":
-            case "NoClone":
-            case "NoEnumTrailingComma":
-            case "NoFinalizer":
-            case "OneStatementPerLine":
-            case "OverloadMethodsDeclarationOrder":
-            case "PackageDeclaration":
-            case "ParameterAssignment":
-            case "PatternVariableAssignment":
-            case "RequireThis":
-            case "ReturnCount":
-            case "SimplifyBooleanExpression":
-            case "SimplifyBooleanReturn":
-            case "StringLiteralEquality":
-            case "SuperClone":
-            case "SuperFinalize":
-            case "TextBlockGoogleStyleFormatting":
-            case "UnnecessaryNullCheckWithInstanceOf":
-            case "UnnecessaryParentheses":
-            case "UnnecessarySemicolonAfterOuterTypeDeclaration":
-            case "UnnecessarySemicolonAfterTypeMemberDeclaration":
-            case "UnnecessarySemicolonInEnumeration":
-            case "UnnecessarySemicolonInTryWithResources":
-            case "UnusedCatchParameterShouldBeUnnamed":
-            case "UnusedLambdaParameterShouldBeUnnamed":
-            case "UnusedLocalVariable":
-            case "UnusedTryResourceShouldBeUnnamed":
-            case "UseEnhancedSwitch":
-            case "VariableDeclarationUsageDistance":
-            case "WhenShouldBeUsed":
-                return 4; // coding
-
-            case "Header":
-            case "MultiFileRegexpHeader":
-            case "RegexpHeader":
-                return 5; // headers
-
-            case "AvoidStarImport":
-            case "AvoidStaticImport":
-            case "CustomImportOrder":
-            case "IllegalImport":
-            case "ImportControl":
-            case "ImportOrder":
-            case "RedundantImport":
-            case "UnusedImports":
-                return 6; // imports
-
-            case "AtclauseOrder":
-            case "InvalidJavadocPosition":
-            case "JavadocBlockTagLocation":
-            case "JavadocContentLocation":
-            case "JavadocLeadingAsteriskAlign":
-            case "JavadocMethod":
-            case "JavadocMissingLeadingAsterisk":
-            case "JavadocMissingWhitespaceAfterAsterisk":
-            case "JavadocPackage":
-            case "JavadocParagraph":
-            case "JavadocStyle":
-            case "JavadocTagContinuationIndentation":
-            case "JavadocType":
-            case "JavadocVariable":
-            case "MissingJavadocMethod":
-            case "MissingJavadocPackage":
-            case "MissingJavadocType":
-            case "NonEmptyAtclauseDescription":
-            case "RequireEmptyLineBeforeBlockTagGroup":
-            case "SingleLineJavadoc":
-            case "SummaryJavadoc":
-            case "WriteTag":
-                return 7; // javadoc comments
-
-            case "BooleanExpressionComplexity":
-            case "ClassDataAbstractionCoupling":
-            case "ClassFanOutComplexity":
-            case "CyclomaticComplexity":
-            case "JavaNCSS":
-            case "NPathComplexity":
-                return 8; // metrics
-
-            case "ArrayTypeStyle":
-            case "AvoidEscapedUnicodeCharacters":
-            case "CommentsIndentation":
-            case "DescendantToken":
-            case "FinalParameters":
-            case "HexLiteralCase":
-            case "Indentation":
-            case "LineEnding":
-            case "NewlineAtEndOfFile":
-            case "NoCodeInFile":
-            case "NumericalPrefixesInfixesSuffixesCharacterCase":
-            case "OrderedProperties":
-            case "OuterTypeFilename":
-            case "TodoComment":
-            case "TrailingComment":
-            case "Translation":
-            case "UncommentedMain":
-            case "UniqueProperties":
-            case "UpperEll":
-                return 9; // miscellaneous
-
-            case "ClassMemberImpliedModifier":
-            case "InterfaceMemberImpliedModifier":
-            case "ModifierOrder":
-            case "RedundantModifier":
-                return 10; // modifiers
-
-            case "AbbreviationAsWordInName":
-            case "AbstractClassName":
-            case "CatchParameterName":
-            case "ClassTypeParameterName":
-            case "ConstantName":
-            case "GoogleNonConstantFieldName":
-            case "IllegalIdentifierName":
-            case "InterfaceTypeParameterName":
-            case "LambdaParameterName":
-            case "LocalFinalVariableName":
-            case "LocalVariableName":
-            case "MemberName":
-            case "MethodName":
-            case "MethodTypeParameterName":
-            case "PackageName":
-            case "ParameterName":
-            case "PatternVariableName":
-            case "RecordComponentName":
-            case "RecordTypeParameterName":
-            case "StaticVariableName":
-            case "TypeName":
-                return 11; // naming conventions
-
-            case "Regexp":
-            case "RegexpMultiline":
-            case "RegexpOnFilename":
-            case "RegexpSingleline":
-            case "RegexpSinglelineJava":
-                return 12; // regexp checks
-
-            case "AnonInnerLength":
-            case "ExecutableStatementCount":
-            case "FileLength":
-            case "LambdaBodyLength":
-            case "LineLength":
-            case "MethodCount":
-            case "MethodLength":
-            case "OuterTypeNumber":
-            case "ParameterNumber":
-            case "RecordComponentNumber":
-                return 13; // size violations
+    static ModuleGroups load(Path catalogPath) throws IOException {
+        if (catalogPath == null) {
+            return builtIn;
+        }
 
-            case "EmptyForInitializerPad":
-            case "EmptyForIteratorPad":
-            case "EmptyLineSeparator":
-            case "FileTabCharacter":
-            case "GenericWhitespace":
-            case "MethodParamPad":
-            case "NoLineWrap":
-            case "NoWhitespaceAfter":
-            case "NoWhitespaceBefore":
-            case "NoWhitespaceBeforeCaseDefaultColon":
-            case "OperatorWrap":
-            case "ParenPad":
-            case "SeparatorWrap":
-            case "SingleSpaceSeparator":
-            case "TypecastParenPad":
-            case "WhitespaceAfter":
-            case "WhitespaceAround":
-                return 14; // whitespace
+        Properties catalog = new Properties();
+        try (Reader reader = Files.newBufferedReader(
+                catalogPath, StandardCharsets.UTF_8)) {
+            catalog.load(reader);
+        }
 
-            case "SeverityMatchFilter":
-            case "SuppressWarningsFilter":
-            case "SuppressWithNearbyCommentFilter":
-            case "SuppressWithNearbyTextFilter":
-            case "SuppressWithPlainTextCommentFilter":
-            case "SuppressionCommentFilter":
-            case "SuppressionFilter":
-            case "SuppressionSingleFilter":
-            case "SuppressionXpathFilter":
-            case "SuppressionXpathSingleFilter":
-                return suppressionGroup; // non-file filters
+        Map<String, Category> map = new HashMap<>(builtIn.nameToCategory);
+        for (String moduleName : catalog.stringPropertyNames()) {
+            String categoryName = catalog.getProperty(moduleName).trim();
+            String constantName = categoryName.toUpperCase(Locale.ROOT);
+            Category category;
+            try {
+                category = Category.valueOf(constantName);
+            } catch (IllegalArgumentException exception) {
+                String message = String.format(
+                        "Unknown category \"%s\" for module \"%s\" in %s",
+                        categoryName, moduleName, catalogPath);
+                throw new IOException(message, exception);
+            }
+            map.put(moduleName, category);
+        }
+        ModuleGroups result = new ModuleGroups(map);
 
-            case "BeforeExecutionExclusionFileFilter":
-                return suppressionGroup + 1; // file filters
+        return result;
+    }
 
-            case "TreeWalker":
-                return 99;
+    /**
+     * Return the group to which the specified module belongs.
+     *
+     * @param moduleName the name of a Checkstyle module
+     * @return the module's group index
+     * @throws IllegalArgumentException if the module isn't in this table
+     */
+    int moduleGroup(String moduleName) {
+        Category category = category(moduleName);
+        int result = category.group();
 
-            default:
-                String message
-                        = String.format("Unknown module \"%s\"", moduleName);
-                throw new IllegalArgumentException(message);
-        }
+        return result;
     }
 }
@@ -0,0 +1,220 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.w3c.dom.Node;
+
+/**
+ * The canonical order of one module's attributes and children, computed
+ * without modifying the DOM.
+ * <p>
+ * Once the module IDs of a document have been collected, the order of each
+ * module depends only on its own children, so the orders of many modules can
+ * be planned concurrently. Applying them modifies the DOM, which isn't
+ * thread-safe, so that's done on a single thread.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ModuleOrder {
+    // *************************************************************************
+    // constants
+
+    /**
+     * maximum number of modules planned by a single task
+     */
+    final private static int maxModulesPerTask = 16;
+    // *************************************************************************
+    // fields
+
+    /**
+     * attributes in canonical order, or {@code null} if already in order
+     */
+    private Node[] attributes;
+    /**
+     * children in canonical order, or {@code null} if already in order
+     */
+    private Node[] children;
+    /**
+     * number of comparisons made while planning
+     */
+    private long numComparisons;
+    /**
+     * the DOM node of the module (not null)
+     */
+    final private Node module;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an order that leaves the specified module unchanged.
+     *
+     * @param module the DOM node of the module (not null, alias created)
+     */
+    ModuleOrder(Node module) {
+        this.module = module;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Re-order the module's attributes and children in the DOM. Not
+     * thread-safe.
+     *
+     * @return the number of nodes moved (&ge;0)
+     */
+    int apply() {
+        int result = 0;
+        if (attributes != null) {
+            result += DomUtils.reorderAttributes(module, attributes);
+        }
+        if (children != null) {
+            result += DomUtils.reorderChildren(module, children);
+        }
+
+        return result;
+    }
+
+    /**
+     * Count one comparison made while planning.
+     */
+    void countComparison() {
+        ++numComparisons;
+    }
+
+    /**
+     * Return the number of comparisons made while planning.
+     *
+     * @return the count (&ge;0)
+     */
+    long countComparisons() {
+        return numComparisons;
+    }
+
+    /**
+     * Plan the orders of the specified modules concurrently, using the common
+     * fork-join pool. The DOM isn't modified.
+     *
+     * @param sorter the sorter that collected the modules (not null)
+     * @param modules the DOM nodes of the modules (not null, unaffected)
+     * @return a new array of orders, in the same order as {@code modules}
+     */
+    static ModuleOrder[] planConcurrently(
+            DocumentSorter sorter, List<Node> modules) {
+        int numModules = modules.size();
+        ModuleOrder[] result = new ModuleOrder[numModules];
+        PlanTask task = new PlanTask(sorter, modules, result, 0, numModules);
+        ForkJoinPool.commonPool().invoke(task);
+
+        return result;
+    }
+
+    /**
+     * Specify the new order of the module's attributes.
+     *
+     * @param attributes the attributes in canonical order (not null, alias
+     * created)
+     */
+    void setAttributes(Node[] attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * Specify the new order of the module's children.
+     *
+     * @param children the children in canonical order (not null, alias
+     * created)
+     */
+    void setChildren(Node[] children) {
+        this.children = children;
+    }
+    // *************************************************************************
+    // PlanTask class
+
+    /**
+     * A task to plan the orders of a contiguous range of modules, splitting
+     * the range until each task has only a few modules.
+     */
+    final private static class PlanTask extends RecursiveAction {
+        /**
+         * index of the first module in the range
+         */
+        final private int fromIndex;
+        /**
+         * the DOM nodes of all modules in the document (not null)
+         */
+        final private List<Node> modules;
+        /**
+         * storage for the planned orders, indexed like {@code modules} (not
+         * null)
+         */
+        final private ModuleOrder[] orders;
+        /**
+         * the sorter that collected the modules (not null)
+         */
+        final private DocumentSorter sorter;
+        /**
+         * index after the last module in the range
+         */
+        final private int toIndex;
+
+        /**
+         * Instantiate a task for the specified range of modules.
+         *
+         * @param sorter the sorter that collected the modules (not null)
+         * @param modules the DOM nodes of the modules (not null)
+         * @param orders storage for the orders (not null)
+         * @param fromIndex the index of the first module in the range
+         * @param toIndex the index after the last module in the range
+         */
+        PlanTask(DocumentSorter sorter, List<Node> modules,
+                ModuleOrder[] orders, int fromIndex, int toIndex) {
+            this.sorter = sorter;
+            this.modules = modules;
+            this.orders = orders;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        /**
+         * Plan the range directly if it's small, otherwise split it in 2.
+         */
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= maxModulesPerTask) {
+                for (int i = fromIndex; i < toIndex; ++i) {
+                    orders[i] = sorter.planModule(modules.get(i));
+                }
+
+            } else {
+                int midIndex = (fromIndex + toIndex) >>> 1;
+                invokeAll(
+                        new PlanTask(sorter, modules, orders, fromIndex,
+                                midIndex),
+                        new PlanTask(sorter, modules, orders, midIndex,
+                                toIndex));
+            }
+        }
+    }
+}
@@ -22,6 +22,12 @@ SOFTWARE.
 package com.github.stephengold.sortcheckstyle;
 
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.converters.IParameterSplitter;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Command-line parameters of the SortCheckstyle application.
@@ -32,12 +38,30 @@ class Parameters {
     // *************************************************************************
     // fields
 
+    /**
+     * whether to cache the results of batch runs
+     */
+    @Parameter(names = "--cache", description = "Skip batch files known to be "
+            + "sorted, using the .sortcheckstyle-cache directory.")
+    private boolean cacheResults;
+    /**
+     * whether to check the order without writing any output
+     */
+    @Parameter(names = "--check", description = "Check whether the input is "
+            + "already sorted, without writing any output.")
+    private boolean checkOnly;
     /**
      * whether to compress whitespace in values
      */
     @Parameter(names = {"-c", "--compress"},
             description = "Compress whitespace in values.")
     private boolean compressWhitespace;
+    /**
+     * whether to serve invocations from standard input
+     */
+    @Parameter(names = "--daemon", description = "Serve invocations from "
+            + "standard input, one per line, with tab-separated arguments.")
+    private boolean daemon;
     /**
      * whether to simply display the usage message and then exit
      */
@@ -56,12 +80,73 @@ class Parameters {
     @Parameter(names = "--noSortChildren",
             description = "Disable child sorting.")
     private boolean noSortChildren;
+    /**
+     * whether to sort the modules of each document concurrently
+     */
+    @Parameter(names = "--parallel", description = "Sort the modules of each "
+            + "document concurrently, using all available cores.")
+    private boolean parallelSort;
+    /**
+     * whether to report timings and counts
+     */
+    @Parameter(names = "--stats",
+            description = "Report the time of each phase and other counts.")
+    private boolean printStats;
+    /**
+     * whether to sort using the compact tree model instead of a DOM
+     */
+    @Parameter(names = "--tree", description = "Sort using a compact tree "
+            + "model instead of a DOM.")
+    private boolean treeModel;
     /**
      * whether log output should be verbose
      */
     @Parameter(names = {"-v", "--verbose"},
             description = "Generate additional log output.")
     private boolean verboseLogging;
+    /**
+     * size of the output buffer, in bytes
+     */
+    @Parameter(names = "--bufferSize",
+            description = "Specify the size of the output buffer, in bytes.")
+    private int bufferSize = 65_536;
+    /**
+     * number of threads for processing batch inputs
+     */
+    @Parameter(names = "--threads",
+            description = "Specify the number of threads for batch inputs.")
+    private int numThreads = 1;
+    /**
+     * files, directories, and glob patterns to sort in place, in batch mode
+     */
+    @Parameter(description = "[files, directories, or globs to sort in place]",
+            splitter = NoSplitter.class)
+    private List<String> batchInputs = new ArrayList<>();
+    /**
+     * URIs for XML input, in the order specified
+     */
+    @Parameter(names = {"-u", "--uri"}, description = "Specify an input URI. "
+            + "If repeated, the URIs are fetched concurrently.",
+            splitter = NoSplitter.class)
+    private List<String> inputUris = new ArrayList<>();
+    /**
+     * table of module categories, including any catalog (not null, set by
+     * {@link #loadCatalog()} for command-line use)
+     */
+    private ModuleGroups moduleGroups = ModuleGroups.builtIn();
+    /**
+     * filename of a catalog that assigns module names to categories, or null
+     * for the built-in table only
+     */
+    @Parameter(names = "--groups", description = "Specify a catalog file "
+            + "that assigns additional module names to categories.")
+    private String catalogFilename;
+    /**
+     * glob for filenames to include when searching a directory in batch mode
+     */
+    @Parameter(names = "--include",
+            description = "Specify which files to sort in batch directories.")
+    private String includeGlob = "*checkstyle*.xml";
     /**
      * filename for XML input
      */
@@ -69,19 +154,84 @@ class Parameters {
             description = "Specify the input file.")
     private String inputFilename;
     /**
-     * URI for XML input
+     * directory for mirrored copies of URI inputs, or null for no mirror
      */
-    @Parameter(names = {"-u", "--uri"}, description = "Specify the input URI.")
-    private String inputUri;
+    @Parameter(names = "--mirror", description = "Specify a directory in "
+            + "which to keep local copies of URI inputs between runs.")
+    private String mirrorDirectory;
     /**
-     * filename for XML output (default="checkstyle-out.xml")
+     * filename for XML output
      */
     @Parameter(names = {"-o", "--output"},
             description = "Specify the output file.")
-    private String outputFilename = "checkstyle-out.xml";
+    private String outputFilename;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate parameters with their default values, to be set by
+     * JCommander.
+     */
+    Parameters() {
+    }
+
+    /**
+     * Instantiate parameters with the specified processing options and
+     * defaults for everything else, for use by the library API.
+     *
+     * @param compressWhitespace true to compress whitespace in values
+     * @param sortAttributes true to sort attributes
+     * @param sortChildren true to sort children
+     * @param moduleGroups the table of module categories (not null, alias
+     * created)
+     */
+    Parameters(boolean compressWhitespace, boolean sortAttributes,
+            boolean sortChildren, ModuleGroups moduleGroups) {
+        this.compressWhitespace = compressWhitespace;
+        this.noSortAttributes = !sortAttributes;
+        this.noSortChildren = !sortChildren;
+        this.moduleGroups = moduleGroups;
+    }
     // *************************************************************************
     // new methods exposed
 
+    /**
+     * Return the batch inputs that were specified.
+     *
+     * @return the pre-existing list of files, directories, and globs (not
+     * null, may be empty)
+     */
+    List<String> batchInputs() {
+        return batchInputs;
+    }
+
+    /**
+     * Test whether to cache the results of batch runs.
+     *
+     * @return {@code true} to cache results, otherwise {@code false}
+     */
+    boolean cacheResults() {
+        return cacheResults;
+    }
+
+    /**
+     * Return the filename of the module-group catalog.
+     *
+     * @return the filename, or null for the built-in table only
+     */
+    String catalogFilename() {
+        return catalogFilename;
+    }
+
+    /**
+     * Test whether to check the order without writing any output.
+     *
+     * @return {@code true} to check only, otherwise {@code false}
+     */
+    boolean checkOnly() {
+        return checkOnly;
+    }
+
     /**
      * Test whether to compress whitespace in message/property values.
      *
@@ -91,6 +241,15 @@ class Parameters {
         return compressWhitespace;
     }
 
+    /**
+     * Test whether to serve invocations from standard input.
+     *
+     * @return {@code true} for daemon mode, otherwise {@code false}
+     */
+    boolean daemon() {
+        return daemon;
+    }
+
     /**
      * Describe how the document was/will be processed.
      *
@@ -129,6 +288,16 @@ class Parameters {
         return helpOnly;
     }
 
+    /**
+     * Return the glob for filenames to include when searching a directory in
+     * batch mode.
+     *
+     * @return the glob pattern (not null)
+     */
+    String includeGlob() {
+        return includeGlob;
+    }
+
     /**
      * Return the input filename that was specified.
      *
@@ -139,12 +308,63 @@ class Parameters {
     }
 
     /**
-     * Return the input URI that was specified.
+     * Return the input URIs that were specified.
+     *
+     * @return the pre-existing list of URIs, in the order specified (not
+     * null, may be empty)
+     */
+    List<String> inputUris() {
+        return inputUris;
+    }
+
+    /**
+     * Load the table of module categories from the catalog file that was
+     * specified, if any.
+     *
+     * @throws IOException if the catalog cannot be read or names an unknown
+     * category
+     */
+    void loadCatalog() throws IOException {
+        this.moduleGroups = (catalogFilename == null)
+                ? ModuleGroups.builtIn()
+                : ModuleGroups.load(Paths.get(catalogFilename));
+    }
+
+    /**
+     * Return the mirror directory that was specified.
+     *
+     * @return the path, or {@code null} if none specified
+     */
+    String mirrorDirectory() {
+        return mirrorDirectory;
+    }
+
+    /**
+     * Access the table of module categories.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    ModuleGroups moduleGroups() {
+        return moduleGroups;
+    }
+
+    /**
+     * Test whether to sort the modules of each document concurrently.
+     *
+     * @return {@code true} for concurrent sorting, otherwise {@code false}
+     */
+    boolean parallelSort() {
+        return parallelSort;
+    }
+
+    /**
+     * Test whether to report timings and counts, which is implied by verbose
+     * logging.
      *
-     * @return the URI or {@code null} if none specified
+     * @return {@code true} to report, otherwise {@code false}
      */
-    String inputUri() {
-        return inputUri;
+    boolean printStats() {
+        return printStats || verboseLogging;
     }
 
     /**
@@ -166,6 +386,24 @@ class Parameters {
         return !noSortChildren;
     }
 
+    /**
+     * Return the size of the output buffer.
+     *
+     * @return the size in bytes (&ge;1)
+     */
+    int bufferSize() {
+        return Math.max(1, bufferSize);
+    }
+
+    /**
+     * Return the number of threads for processing batch inputs.
+     *
+     * @return the count (&ge;1)
+     */
+    int numThreads() {
+        return Math.max(1, numThreads);
+    }
+
     /**
      * Return the output file that was specified.
      *
@@ -175,6 +413,15 @@ class Parameters {
         return outputFilename;
     }
 
+    /**
+     * Test whether to sort using the compact tree model instead of a DOM.
+     *
+     * @return {@code true} for the tree model, otherwise {@code false}
+     */
+    boolean treeModel() {
+        return treeModel;
+    }
+
     /**
      * Test whether the verbose-logging option was specified.
      *
@@ -183,4 +430,26 @@ class Parameters {
     boolean verboseLogging() {
         return verboseLogging;
     }
+    // *************************************************************************
+    // NoSplitter class
+
+    /**
+     * A splitter that keeps each argument whole, so that commas in globs
+     * (such as "config/{a,b}/checkstyle.xml") and URI queries aren't treated
+     * as separators.
+     * JCommander instantiates it reflectively, so it must be public.
+     */
+    final public static class NoSplitter implements IParameterSplitter {
+        /**
+         * Return the specified argument as a list of one value.
+         *
+         * @param value the argument (not null)
+         * @return a new list containing {@code value}
+         */
+        @Override
+        public List<String> split(String value) {
+            List<String> result = Collections.singletonList(value);
+            return result;
+        }
+    }
 }
@@ -0,0 +1,302 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * On-disk cache of sorting results, used to skip files that are already in
+ * canonical form. Each entry maps the SHA-256 hash of an input (together with
+ * the options and engine that affect the output) to the hash of its
+ * canonical output, and records the day it was last used. Entries that
+ * haven't been used recently are dropped when the cache is saved, as are
+ * the least recently used entries beyond a fixed limit, so entries for
+ * deleted or edited files don't accumulate. Instances are thread-safe.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ResultCache {
+    // *************************************************************************
+    // constants
+
+    /**
+     * name of the file that holds the entries, relative to the cache
+     * directory
+     */
+    final private static String entriesFilename = "results.txt";
+    /**
+     * version of the canonical form: increment this whenever a change to the
+     * sorting rules invalidates previously cached results
+     */
+    final private static String formatVersion = "3";
+    /**
+     * maximum number of days an entry is kept without being used
+     */
+    final private static int maxAgeDays = 30;
+    /**
+     * maximum number of entries kept
+     */
+    final private static int maxEntries = 10_000;
+    // *************************************************************************
+    // fields
+
+    /**
+     * map from input keys to entries (not null)
+     */
+    final private Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * file that holds the entries (not null)
+     */
+    final private Path entriesPath;
+    /**
+     * true if entries have been added since the cache was loaded
+     */
+    final private AtomicBoolean isModified = new AtomicBoolean();
+    /**
+     * prefix that distinguishes keys computed with different options (not
+     * null)
+     */
+    final private String optionsPrefix;
+    /**
+     * the current day, counted from the epoch
+     */
+    final private long today = LocalDate.now().toEpochDay();
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Load the cache from the specified directory, which needn't exist.
+     * Malformed and expired entries are ignored.
+     *
+     * @param directory the path to the cache directory (not null)
+     * @param parameters the processing options (not null, unaffected)
+     * @throws IOException if an existing cache or the module-group catalog
+     * cannot be read
+     */
+    ResultCache(Path directory, Parameters parameters) throws IOException {
+        this.entriesPath = directory.resolve(entriesFilename);
+        // A catalog can change the canonical order, so it's part of the key:
+        String catalogFilename = parameters.catalogFilename();
+        String catalogHash = "";
+        if (catalogFilename != null) {
+            byte[] catalog = Files.readAllBytes(Paths.get(catalogFilename));
+            catalogHash = hash(catalog).substring(0, 16);
+        }
+        // The engines format their output identically, but an engine-specific
+        // bug mustn't poison the results of the other engine:
+        this.optionsPrefix = String.format("%s%c%c%c%c%s:", formatVersion,
+                parameters.treeModel() ? 't' : 'd',
+                parameters.compressWhitespace() ? 'c' : '-',
+                parameters.sortAttributes() ? 'a' : '-',
+                parameters.sortChildren() ? 's' : '-', catalogHash);
+
+        if (Files.isRegularFile(entriesPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(
+                    entriesPath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    loadEntry(line);
+                }
+            }
+        }
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Calculate the SHA-256 hash of the specified content.
+     *
+     * @param content the content to hash (not null, unaffected)
+     * @return a string of 64 hexadecimal digits
+     */
+    static String hash(byte[] content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+
+        byte[] bytes = digest.digest(content);
+        StringBuilder result = new StringBuilder(2 * bytes.length);
+        for (byte b : bytes) {
+            result.append(String.format("%02x", b & 0xff));
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Test whether the specified content is known to be in canonical form.
+     *
+     * @param content the content of an input file (not null, unaffected)
+     * @return {@code true} if known to be canonical, otherwise {@code false}
+     */
+    boolean isCanonical(byte[] content) {
+        String hash = hash(content);
+        String key = optionsPrefix + hash;
+        Entry entry = entries.get(key);
+        boolean result = entry != null && hash.equals(entry.outputHash);
+        if (result && entry.lastUsedDay != today) {
+            entries.put(key, new Entry(hash, today));
+            isModified.set(true);
+        }
+
+        return result;
+    }
+
+    /**
+     * Record the canonical form of the specified input. Since sorting is
+     * idempotent, the output is recorded as canonical, too.
+     *
+     * @param input the content of the input file (not null, unaffected)
+     * @param output the canonical content (not null, unaffected)
+     */
+    void put(byte[] input, byte[] output) {
+        String outputHash = hash(output);
+        Entry entry = new Entry(outputHash, today);
+        entries.put(optionsPrefix + hash(input), entry);
+        entries.put(optionsPrefix + outputHash, entry);
+        isModified.set(true);
+    }
+
+    /**
+     * Write the entries to the cache directory, if any were added, used, or
+     * expired. Only the {@code maxEntries} most recently used entries are
+     * written. The file is replaced atomically, so concurrent runs can't
+     * corrupt it.
+     *
+     * @throws IOException if the cache cannot be written
+     */
+    void save() throws IOException {
+        if (!isModified.get()) {
+            return;
+        }
+
+        List<Map.Entry<String, Entry>> list
+                = new ArrayList<>(entries.entrySet());
+        if (list.size() > maxEntries) {
+            // Keep the most recently used entries:
+            Collections.sort(list, (Map.Entry<String, Entry> a,
+                    Map.Entry<String, Entry> b) -> Long.compare(
+                    b.getValue().lastUsedDay, a.getValue().lastUsedDay));
+            list = list.subList(0, maxEntries);
+        }
+
+        Path directory = entriesPath.getParent();
+        Files.createDirectories(directory);
+        Path tempPath = Files.createTempFile(directory, "results", ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(
+                    tempPath, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Entry> mapEntry : list) {
+                    Entry entry = mapEntry.getValue();
+                    writer.write(mapEntry.getKey());
+                    writer.write(' ');
+                    writer.write(entry.outputHash);
+                    writer.write(' ');
+                    writer.write(Long.toString(entry.lastUsedDay));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempPath, entriesPath,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Parse the specified line of the entries file and add its entry, unless
+     * the line is malformed or the entry has expired.
+     *
+     * @param line the line to parse (not null)
+     */
+    private void loadEntry(String line) {
+        String[] fields = line.split(" ");
+        if (fields.length != 3) {
+            isModified.set(true);
+            return;
+        }
+
+        long lastUsedDay;
+        try {
+            lastUsedDay = Long.parseLong(fields[2]);
+        } catch (NumberFormatException exception) {
+            isModified.set(true);
+            return;
+        }
+        if (today - lastUsedDay > maxAgeDays) {
+            // Drop the entry the next time the cache is saved:
+            isModified.set(true);
+        } else {
+            entries.put(fields[0], new Entry(fields[1], lastUsedDay));
+        }
+    }
+    // *************************************************************************
+    // Entry class
+
+    /**
+     * The cached result for one input, immutable.
+     */
+    final private static class Entry {
+        /**
+         * the day the entry was last used, counted from the epoch
+         */
+        final private long lastUsedDay;
+        /**
+         * the hash of the canonical output (not null)
+         */
+        final private String outputHash;
+
+        /**
+         * Instantiate an entry.
+         *
+         * @param outputHash the hash of the canonical output (not null)
+         * @param lastUsedDay the day the entry was last used
+         */
+        Entry(String outputHash, long lastUsedDay) {
+            this.outputHash = outputHash;
+            this.lastUsedDay = lastUsedDay;
+        }
+    }
+}
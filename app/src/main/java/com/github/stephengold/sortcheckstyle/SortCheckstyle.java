@@ -0,0 +1,281 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.TransformerException;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * A reusable engine to organize Checkstyle configurations, for use as a
+ * library. Instances are immutable, and each carries its own table of module
+ * categories, so a single instance may be shared by any number of threads,
+ * and engines with different catalogs don't affect one another (or the
+ * command-line tool).
+ * <p>
+ * For example:
+ * <pre>
+ * SortCheckstyle engine = new SortCheckstyle().withCompression(true);
+ * engine.sortFile(inputPath, outputPath);
+ * </pre>
+ * <p>
+ * Every sort method throws an {@code IllegalArgumentException} if the
+ * configuration contains a module that's neither built in nor assigned to a
+ * category by the engine's catalog. See {@link #withCatalog(Path)}.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class SortCheckstyle {
+    // *************************************************************************
+    // fields
+
+    /**
+     * processing options (not null, never modified)
+     */
+    final private Parameters parameters;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an engine that sorts attributes and children without
+     * compressing whitespace and knows only the built-in modules, like the
+     * command-line default.
+     */
+    public SortCheckstyle() {
+        this(false, true, true, ModuleGroups.builtIn());
+    }
+
+    /**
+     * Instantiate an engine with the specified options.
+     *
+     * @param compressWhitespace true to compress whitespace in values
+     * @param sortAttributes true to sort attributes
+     * @param sortChildren true to sort children
+     * @param moduleGroups the table of module categories (not null, alias
+     * created)
+     */
+    private SortCheckstyle(boolean compressWhitespace, boolean sortAttributes,
+            boolean sortChildren, ModuleGroups moduleGroups) {
+        this.parameters = new Parameters(compressWhitespace, sortAttributes,
+                sortChildren, moduleGroups);
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test whether this engine compresses whitespace in values.
+     *
+     * @return {@code true} if compressing, otherwise {@code false}
+     */
+    public boolean isCompressing() {
+        return parameters.compressWhitespace();
+    }
+
+    /**
+     * Test whether this engine sorts attributes.
+     *
+     * @return {@code true} if sorting, otherwise {@code false}
+     */
+    public boolean isSortingAttributes() {
+        return parameters.sortAttributes();
+    }
+
+    /**
+     * Test whether this engine sorts children.
+     *
+     * @return {@code true} if sorting, otherwise {@code false}
+     */
+    public boolean isSortingChildren() {
+        return parameters.sortChildren();
+    }
+
+    /**
+     * Organize the specified document in place.
+     *
+     * @param document the document to organize (not null, modified)
+     * @throws IllegalArgumentException if the document contains an unknown
+     * module or a duplicate module ID
+     */
+    public void sort(Document document) {
+        newFileSorter().process(document);
+    }
+
+    /**
+     * Read a configuration from the specified stream, organize it, and write
+     * the result to the specified stream. Relative external entities can't
+     * be resolved, since the stream's location is unknown: use
+     * {@link #sort(InputStream, String, OutputStream)} for such inputs.
+     *
+     * @param input the stream to read (not null)
+     * @param output the stream to write (not null)
+     * @throws IOException if the input cannot be read
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if the output cannot be written
+     * @throws IllegalArgumentException if the configuration contains an
+     * unknown module or a duplicate module ID
+     */
+    public void sort(InputStream input, OutputStream output)
+            throws IOException, SAXException, TransformerException {
+        sort(input, null, output);
+    }
+
+    /**
+     * Read a configuration from the specified stream, organize it, and write
+     * the result to the specified stream. The output stream isn't closed.
+     *
+     * @param input the stream to read (not null)
+     * @param systemId the URI of the input, used to resolve relative
+     * external entities, or {@code null} if unknown
+     * @param output the stream to write (not null)
+     * @throws IOException if the input cannot be read
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if the output cannot be written
+     * @throws IllegalArgumentException if the configuration contains an
+     * unknown module or a duplicate module ID
+     */
+    public void sort(InputStream input, String systemId, OutputStream output)
+            throws IOException, SAXException, TransformerException {
+        FileSorter sorter = newFileSorter();
+        Document document = sorter.parse(input, systemId);
+        sorter.process(document);
+        sorter.write(document, output);
+    }
+
+    /**
+     * Read a configuration from the specified file, organize it, and write
+     * the result to the specified file, which may be the same. The output is
+     * replaced atomically, and not at all if its content wouldn't change.
+     *
+     * @param input the path to the input file (not null)
+     * @param output the path to the output file (not null)
+     * @return {@code true} if the output file was written, {@code false} if
+     * it was already identical
+     * @throws IOException if the input cannot be read or the output cannot be
+     * replaced
+     * @throws SAXException if a parse error occurs
+     * @throws TransformerException if the output cannot be written
+     * @throws IllegalArgumentException if the configuration contains an
+     * unknown module or a duplicate module ID
+     */
+    public boolean sortFile(Path input, Path output)
+            throws IOException, SAXException, TransformerException {
+        URL url = input.toUri().toURL();
+        boolean result;
+        try {
+            result = newFileSorter().sortToFile(url, output);
+        } catch (XMLStreamException exception) {
+            // The DOM engine never uses StAX, but report StAX errors as
+            // parse errors anyway:
+            throw new SAXException(exception);
+        }
+
+        return result;
+    }
+
+    /**
+     * Create a copy of this engine that merges the specified catalog over the
+     * built-in modules. The catalog is a properties file that maps module
+     * names to category names, for instance "MyCustomCheck = CODING". It's
+     * read once, by this method.
+     *
+     * @param catalogPath the path to the catalog file, or {@code null} for
+     * the built-in modules only
+     * @return a new engine (not null)
+     * @throws IOException if the catalog cannot be read or names an unknown
+     * category
+     */
+    public SortCheckstyle withCatalog(Path catalogPath) throws IOException {
+        ModuleGroups groups = ModuleGroups.load(catalogPath);
+        SortCheckstyle result = new SortCheckstyle(isCompressing(),
+                isSortingAttributes(), isSortingChildren(), groups);
+
+        return result;
+    }
+
+    /**
+     * Create a copy of this engine with the specified whitespace option.
+     *
+     * @param compress true to compress whitespace in values
+     * @return a new engine (or this engine if the option is unchanged)
+     */
+    public SortCheckstyle withCompression(boolean compress) {
+        if (compress == isCompressing()) {
+            return this;
+        }
+        SortCheckstyle result = new SortCheckstyle(compress,
+                isSortingAttributes(), isSortingChildren(),
+                parameters.moduleGroups());
+
+        return result;
+    }
+
+    /**
+     * Create a copy of this engine with the specified attribute option.
+     *
+     * @param sort true to sort attributes
+     * @return a new engine (or this engine if the option is unchanged)
+     */
+    public SortCheckstyle withSortedAttributes(boolean sort) {
+        if (sort == isSortingAttributes()) {
+            return this;
+        }
+        SortCheckstyle result = new SortCheckstyle(isCompressing(), sort,
+                isSortingChildren(), parameters.moduleGroups());
+
+        return result;
+    }
+
+    /**
+     * Create a copy of this engine with the specified child option.
+     *
+     * @param sort true to sort children
+     * @return a new engine (or this engine if the option is unchanged)
+     */
+    public SortCheckstyle withSortedChildren(boolean sort) {
+        if (sort == isSortingChildren()) {
+            return this;
+        }
+        SortCheckstyle result = new SortCheckstyle(isCompressing(),
+                isSortingAttributes(), sort, parameters.moduleGroups());
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Create a sorter for a single call. Sorters aren't thread-safe, but they
+     * share the current thread's parser and transformer.
+     *
+     * @return a new instance (not null)
+     */
+    private FileSorter newFileSorter() {
+        FileSorter result = new FileSorter(parameters, new Stats(), null);
+        return result;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.util.List;
+
+/**
+ * A precomputed key for sorting one unit of a module's children, decorated
+ * with the unit's nodes. A unit is an element together with any comments
+ * and text that precede it, or else the comments and text that follow the
+ * last element. Computing the key once per unit avoids repeated DOM scans
+ * during comparisons.
+ *
+ * @param <T> the type of node decorated
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class SortKey<T> implements Comparable<SortKey<T>> {
+    // *************************************************************************
+    // fields
+
+    /**
+     * module group, or 0 for a non-module element
+     */
+    final private int group;
+    /**
+     * sort index of the element's tag, or 0 for a trailing unit
+     */
+    final private int tagOrder;
+    /**
+     * sort index of the unit type: 1 for an element or 2 for trailing text
+     */
+    final private int typeOrder;
+    /**
+     * the decorated nodes, in document order (not empty), or {@code null}
+     * for a key that's only compared
+     */
+    final private T[] nodes;
+    /**
+     * module ID, or {@code null} if none
+     */
+    final private String id;
+    /**
+     * name (or message key) for sorting, or {@code null} for a trailing unit
+     */
+    final private String name;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a key for a trailing unit of comments and text, which sorts
+     * after all elements.
+     *
+     * @param nodes the nodes to decorate (not null, not empty, alias created)
+     */
+    SortKey(T[] nodes) {
+        this.nodes = nodes;
+        this.typeOrder = 2;
+        this.tagOrder = 0;
+        this.group = 0;
+        this.name = null;
+        this.id = null;
+    }
+
+    /**
+     * Instantiate a key for a unit that ends with an element.
+     *
+     * @param nodes the nodes to decorate (not empty, alias created) or
+     * {@code null} for a key that's only compared
+     * @param tagOrder the sort index of the element's tag
+     * @param group the module group, or 0 for a non-module element
+     * @param name the name (or message key) to sort by (not null)
+     * @param id the module ID, or {@code null} if none
+     */
+    private SortKey(
+            T[] nodes, int tagOrder, int group, String name, String id) {
+        this.nodes = nodes;
+        this.typeOrder = 1;
+        this.tagOrder = tagOrder;
+        this.group = group;
+        this.name = name;
+        this.id = id;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Instantiate a key for a unit that ends with the specified element. A
+     * suppression module with an ID sorts with the module it suppresses.
+     *
+     * @param <T> the type of node decorated
+     * @param groups the table of module categories (not null)
+     * @param idIndex the module IDs of the document (not null, unaffected)
+     * @param nodes the nodes to decorate (not empty, alias created) or
+     * {@code null} for a key that's only compared
+     * @param tag the element's tag (not null)
+     * @param name the value of the element's {@link #nameAttribute(String)}
+     * attribute (not null)
+     * @param id the module ID, or {@code null} if none
+     * @return a new key
+     * @throws IllegalArgumentException if the element is a module that isn't
+     * in {@code groups}
+     */
+    static <T> SortKey<T> forElement(ModuleGroups groups, IdIndex idIndex,
+            T[] nodes, String tag, String name, String id) {
+        int tagOrder = tagOrder(tag);
+        int group = 0;
+        String sortName = name;
+        if (tag.equals("module")) {
+            if (id != null && groups.isInSuppressionGroup(name)) {
+                int handle = idIndex.handle(id);
+                String targetName
+                        = (handle < 0) ? null : idIndex.targetName(handle);
+                if (targetName != null) {
+                    sortName = targetName;
+                }
+            }
+            group = groups.moduleGroup(sortName);
+        }
+        SortKey<T> result
+                = new SortKey<>(nodes, tagOrder, group, sortName, id);
+
+        return result;
+    }
+
+    /**
+     * Find the first key in the specified list that should sort before its
+     * predecessor. A list without such a key is already in sorted order.
+     *
+     * @param <T> the type of node decorated
+     * @param keys the keys to check, in their current order (not null,
+     * unaffected)
+     * @return the index of the first out-of-order key, or -1 if the list is
+     * sorted
+     */
+    static <T> int findUnsorted(List<SortKey<T>> keys) {
+        int numKeys = keys.size();
+        for (int i = 1; i < numKeys; ++i) {
+            if (keys.get(i - 1).compareTo(keys.get(i)) > 0) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Return the name of the attribute that elements with the specified tag
+     * are sorted by.
+     *
+     * @param tag the element's tag (not null)
+     * @return "key" for a message, otherwise "name"
+     */
+    static String nameAttribute(String tag) {
+        String result = tag.equals("message") ? "key" : "name";
+        return result;
+    }
+
+    /**
+     * Return the decorated nodes.
+     *
+     * @return the pre-existing array (not null, not empty)
+     */
+    T[] nodes() {
+        return nodes;
+    }
+    // *************************************************************************
+    // Comparable methods
+
+    /**
+     * Compare with another key: elements before trailing text, then by tag,
+     * group, name, and ID. Trailing units compare equal, as do elements with
+     * identical keys, so a stable sort preserves their original order. A
+     * module without an ID sorts before a module with the same name that has
+     * an ID.
+     *
+     * @param other the key to compare with (not null, unaffected)
+     * @return negative if this sorts first, zero if equal, otherwise positive
+     */
+    @Override
+    public int compareTo(SortKey<T> other) {
+        int result = Integer.compare(typeOrder, other.typeOrder);
+        if (result != 0 || typeOrder == 2) {
+            return result;
+        }
+
+        result = Integer.compare(tagOrder, other.tagOrder);
+        if (result != 0) {
+            return result;
+        }
+        result = Integer.compare(group, other.group);
+        if (result != 0) {
+            return result;
+        }
+        result = name.compareTo(other.name);
+        if (result != 0) {
+            return result;
+        }
+
+        if (id == null) {
+            result = (other.id == null) ? 0 : -1;
+        } else if (other.id == null) {
+            result = 1;
+        } else {
+            result = id.compareTo(other.id);
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Return the sort index of the specified tag when sorting a module's
+     * children.
+     *
+     * @param tag the tag of the child element
+     * @return the index
+     */
+    private static int tagOrder(String tag) {
+        switch (tag) {
+            // <metadata> then <property> then <module> then <message>:
+            case "metadata":
+                return 0;
+            case "property":
+                return 1;
+            case "module":
+                return 2;
+            case "message":
+                return 3;
+            default:
+                throw new IllegalArgumentException("tag=" + tag);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Accumulate timings and counts while processing documents. Instances are
+ * thread-safe, so a single instance may be shared by concurrent sorters.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class Stats {
+    // *************************************************************************
+    // enums
+
+    /**
+     * Enumerate the timed phases of processing.
+     */
+    enum Phase {
+        /**
+         * parse the input
+         */
+        PARSE("parse"),
+        /**
+         * traverse the document, collecting module IDs and compressing
+         * whitespace in values
+         */
+        TRAVERSE("traversal"),
+        /**
+         * sort attributes and children
+         */
+        SORT("sort"),
+        /**
+         * serialize the output
+         */
+        SERIALIZE("serialize");
+
+        /**
+         * description for reports (not null)
+         */
+        final private String description;
+
+        /**
+         * Instantiate a phase with the specified description.
+         *
+         * @param description the description for reports (not null)
+         */
+        Phase(String description) {
+            this.description = description;
+        }
+    }
+    // *************************************************************************
+    // fields
+
+    /**
+     * total number of bytes read
+     */
+    final private AtomicLong bytesRead = new AtomicLong();
+    /**
+     * total number of bytes written
+     */
+    final private AtomicLong bytesWritten = new AtomicLong();
+    /**
+     * total number of files skipped because of cached results
+     */
+    final private AtomicLong cacheHits = new AtomicLong();
+    /**
+     * total number of comparisons made while sorting
+     */
+    final private AtomicLong comparisons = new AtomicLong();
+    /**
+     * total number of modules visited while sorting
+     */
+    final private AtomicLong modulesVisited = new AtomicLong();
+    /**
+     * total number of DOM nodes moved while sorting
+     */
+    final private AtomicLong nodesMoved = new AtomicLong();
+    /**
+     * total wall time of each phase, in nanoseconds, indexed by ordinal
+     */
+    final private AtomicLongArray phaseNanos
+            = new AtomicLongArray(Phase.values().length);
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Add wall time to the specified phase.
+     *
+     * @param phase the phase (not null)
+     * @param startNanos the value of {@code System.nanoTime()} when the phase
+     * started
+     */
+    void addTime(Phase phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        phaseNanos.addAndGet(phase.ordinal(), elapsed);
+    }
+
+    /**
+     * Count files skipped because of cached results.
+     *
+     * @param count the number of files (&ge;0)
+     */
+    void countCacheHits(long count) {
+        cacheHits.addAndGet(count);
+    }
+
+    /**
+     * Count comparisons made while sorting.
+     *
+     * @param count the number of comparisons (&ge;0)
+     */
+    void countComparisons(long count) {
+        comparisons.addAndGet(count);
+    }
+
+    /**
+     * Count modules visited while sorting.
+     *
+     * @param count the number of modules (&ge;0)
+     */
+    void countModules(long count) {
+        modulesVisited.addAndGet(count);
+    }
+
+    /**
+     * Count DOM nodes moved while sorting.
+     *
+     * @param count the number of nodes (&ge;0)
+     */
+    void countMoves(long count) {
+        nodesMoved.addAndGet(count);
+    }
+
+    /**
+     * Wrap the specified stream so that bytes read from it are counted.
+     *
+     * @param stream the stream to wrap (not null)
+     * @return a new stream
+     */
+    InputStream countInput(InputStream stream) {
+        InputStream result = new FilterInputStream(stream) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    bytesRead.incrementAndGet();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length)
+                    throws IOException {
+                int numBytes = super.read(buffer, offset, length);
+                if (numBytes > 0) {
+                    bytesRead.addAndGet(numBytes);
+                }
+                return numBytes;
+            }
+        };
+
+        return result;
+    }
+
+    /**
+     * Wrap the specified stream so that bytes written to it are counted.
+     *
+     * @param stream the stream to wrap (not null)
+     * @return a new stream
+     */
+    OutputStream countOutput(OutputStream stream) {
+        OutputStream result = new FilterOutputStream(stream) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesWritten.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length)
+                    throws IOException {
+                out.write(buffer, offset, length);
+                bytesWritten.addAndGet(length);
+            }
+        };
+
+        return result;
+    }
+
+    /**
+     * Print a report of the accumulated timings and counts.
+     *
+     * @param stream the stream to print to (not null)
+     */
+    void print(PrintStream stream) {
+        stream.println("Statistics:");
+        for (Phase phase : Phase.values()) {
+            double millis = phaseNanos.get(phase.ordinal()) / 1e6;
+            stream.printf("  %-30s %10.3f ms%n",
+                    phase.description + " time:", millis);
+        }
+        stream.printf("  %-30s %10d%n", "modules visited:",
+                modulesVisited.get());
+        stream.printf("  %-30s %10d%n", "comparisons made:",
+                comparisons.get());
+        stream.printf("  %-30s %10d%n", "nodes moved:", nodesMoved.get());
+        stream.printf("  %-30s %10d%n", "bytes read:", bytesRead.get());
+        stream.printf("  %-30s %10d%n", "bytes written:", bytesWritten.get());
+        stream.printf("  %-30s %10d%n", "files skipped (cached):",
+                cacheHits.get());
+    }
+}
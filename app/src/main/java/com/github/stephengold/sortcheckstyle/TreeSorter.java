@@ -0,0 +1,339 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Process a single Checkstyle configuration document using the compact
+ * {@link ConfigNode} model instead of a W3C DOM. The output has the same
+ * order and formatting as the DOM-based {@link DocumentSorter}. Instances are
+ * not thread-safe, but distinct instances may be used concurrently.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class TreeSorter {
+    // *************************************************************************
+    // fields
+
+    /**
+     * table of module categories (not null)
+     */
+    final private ModuleGroups groups;
+    /**
+     * module IDs of the document being processed (not null)
+     */
+    private IdIndex idIndex = new IdIndex();
+    /**
+     * number of comparisons made since the last report to the statistics
+     */
+    private long numComparisons;
+    /**
+     * processing options (not null)
+     */
+    final private Parameters parameters;
+    /**
+     * parser for input documents (not null)
+     */
+    final private ConfigReader reader = new ConfigReader();
+    /**
+     * statistics to update (not null)
+     */
+    final private Stats stats;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a sorter with the specified options.
+     *
+     * @param parameters the processing options (not null, alias created)
+     * @param stats the statistics to update (not null, alias created)
+     */
+    TreeSorter(Parameters parameters, Stats stats) {
+        this.groups = parameters.moduleGroups();
+        this.parameters = parameters;
+        this.stats = stats;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Process the specified document in memory.
+     *
+     * @param document the top level of the document (not null, modified)
+     */
+    void process(ConfigNode document) {
+        long startNanos = System.nanoTime();
+        List<ConfigNode> modules = traverse(document);
+        stats.addTime(Stats.Phase.TRAVERSE, startNanos);
+
+        startNanos = System.nanoTime();
+        for (ConfigNode module : modules) {
+            sortModule(module);
+        }
+        stats.addTime(Stats.Phase.SORT, startNanos);
+        // Release the IDs, since this sorter may outlive the document:
+        this.idIndex = new IdIndex();
+
+        stats.countModules(modules.size());
+        stats.countComparisons(numComparisons);
+        this.numComparisons = 0L;
+    }
+
+    /**
+     * Read a document from the specified URL, process it, and write the
+     * result to the specified stream.
+     *
+     * @param input the location of the input document (not null)
+     * @param output the stream to write to (not null)
+     * @throws IOException if the input cannot be read or the output cannot be
+     * written
+     * @throws XMLStreamException if a parse error occurs
+     */
+    void sort(URL input, OutputStream output)
+            throws IOException, XMLStreamException {
+        long startNanos = System.nanoTime();
+        ConfigNode document;
+        try (InputStream stream = stats.countInput(input.openStream())) {
+            document = reader.read(stream, input.toString());
+        }
+        stats.addTime(Stats.Phase.PARSE, startNanos);
+
+        process(document);
+
+        startNanos = System.nanoTime();
+        OutputStream countingOutput = stats.countOutput(output);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                countingOutput, StandardCharsets.UTF_8));
+        new ConfigWriter(writer).write(document);
+        writer.flush();
+        stats.addTime(Stats.Phase.SERIALIZE, startNanos);
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Test whether the children of the specified module are already in
+     * sorted order. Comments and text travel with the following element, so
+     * only the elements need to be compared.
+     *
+     * @param module the module (not null, unaffected)
+     * @return {@code true} if sorting wouldn't change anything, otherwise
+     * {@code false}
+     */
+    private boolean areChildrenSorted(ConfigNode module) {
+        SortKey<ConfigNode> previousKey = null;
+        int numChildren = module.countChildren();
+        for (int i = 0; i < numChildren; ++i) {
+            ConfigNode child = module.child(i);
+            if (child.isElement()) {
+                SortKey<ConfigNode> key = elementKey(child, null);
+                if (previousKey != null) {
+                    ++numComparisons;
+                    if (previousKey.compareTo(key) > 0) {
+                        return false;
+                    }
+                }
+                previousKey = key;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compress any whitespace in the value of the specified message or
+     * property.
+     *
+     * @param element the element (not null)
+     */
+    private static void compressValue(ConfigNode element) {
+        if (!Whitespace.isCompressible(element.tag())) {
+            return;
+        }
+
+        int numAttributes = element.countAttributes();
+        for (int i = 0; i < numAttributes; ++i) {
+            if (element.attributeName(i).equals("value")) {
+                String value = element.attributeValue(i);
+                String compressed = Whitespace.compress(value);
+                if (compressed != value) {
+                    element.setAttributeValue(i, compressed);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compute the sort key of the specified element.
+     *
+     * @param element the element (not null, unaffected)
+     * @param unit the nodes to be decorated by the key, ending with
+     * {@code element} (not empty, alias created) or {@code null} for a key
+     * that's only compared
+     * @return a new key that decorates {@code unit}
+     */
+    private SortKey<ConfigNode> elementKey(
+            ConfigNode element, ConfigNode[] unit) {
+        String tag = element.tag();
+        String name = element.attribute(SortKey.nameAttribute(tag));
+        SortKey<ConfigNode> result = SortKey.forElement(
+                groups, idIndex, unit, tag, name, element.id());
+        return result;
+    }
+
+    /**
+     * Re-order the attributes and children of the specified module.
+     *
+     * @param module the module (not null, modified)
+     */
+    private void sortModule(ConfigNode module) {
+        if (parameters.sortAttributes()) {
+            int numMoves = module.sortAttributes();
+            stats.countMoves(numMoves);
+        }
+        if (!parameters.sortChildren() || areChildrenSorted(module)) {
+            return;
+        }
+
+        // Group the children into units, each ending with an element:
+        ConfigNode[] children = module.toArray();
+        List<SortKey<ConfigNode>> keyList = new ArrayList<>(children.length);
+        int unitStart = 0;
+        for (int i = 0; i < children.length; ++i) {
+            ConfigNode child = children[i];
+            if (child.isElement()) {
+                ConfigNode[] unit
+                        = Arrays.copyOfRange(children, unitStart, i + 1);
+                keyList.add(elementKey(child, unit));
+                unitStart = i + 1;
+            }
+        }
+        if (unitStart < children.length) {
+            keyList.add(new SortKey<>(Arrays.copyOfRange(
+                    children, unitStart, children.length)));
+        }
+
+        Collections.sort(keyList, (SortKey<ConfigNode> a,
+                SortKey<ConfigNode> b) -> {
+            ++numComparisons;
+            return a.compareTo(b);
+        });
+
+        // Ungroup:
+        int numMoves = 0;
+        int childIndex = 0;
+        ConfigNode[] sorted = new ConfigNode[children.length];
+        for (SortKey<ConfigNode> key : keyList) {
+            for (ConfigNode child : key.nodes()) {
+                if (children[childIndex] != child) {
+                    ++numMoves;
+                }
+                sorted[childIndex] = child;
+                ++childIndex;
+            }
+        }
+        module.setChildren(sorted);
+        stats.countMoves(numMoves);
+    }
+
+    /**
+     * Visit every element of the specified document in a single depth-first
+     * traversal, collecting its modules and their IDs and (if requested)
+     * compressing whitespace in message/property values.
+     *
+     * @param document the top level of the document (not null, modified)
+     * @return a new list of modules, in document order
+     */
+    private List<ConfigNode> traverse(ConfigNode document) {
+        this.idIndex = new IdIndex();
+        List<ConfigNode> result = new ArrayList<>();
+        visit(document, result);
+
+        return result;
+    }
+
+    /**
+     * Visit the children of the specified node, and their descendants, in
+     * document order.
+     *
+     * @param parent the parent node (not null)
+     * @param modules storage for the modules found (not null, added to)
+     */
+    private void visit(ConfigNode parent, List<ConfigNode> modules) {
+        int numChildren = parent.countChildren();
+        for (int i = 0; i < numChildren; ++i) {
+            ConfigNode child = parent.child(i);
+            if (child.isElement()) {
+                if (child.tag().equals("module")) {
+                    visitModule(child);
+                    modules.add(child);
+                }
+                visit(child, modules);
+            }
+        }
+    }
+
+    /**
+     * Compress the values of the specified module's children (if requested)
+     * and record the module's ID.
+     *
+     * @param module the module (not null)
+     * @throws IllegalArgumentException if the ID is already in use
+     */
+    private void visitModule(ConfigNode module) {
+        String id = module.id();
+        if (parameters.compressWhitespace()) {
+            int numChildren = module.countChildren();
+            for (int i = 0; i < numChildren; ++i) {
+                ConfigNode child = module.child(i);
+                if (child.isElement()) {
+                    compressValue(child);
+                }
+            }
+            if (id != null) {
+                // The ID was computed from the uncompressed value:
+                id = Whitespace.compress(id);
+                module.setId(id);
+            }
+        }
+
+        if (id != null) {
+            String moduleName = module.attribute("name");
+            idIndex.addModule(
+                    id, moduleName, groups.isInSuppressionGroup(moduleName));
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Download URI inputs into a local mirror directory, concurrently. Each
+ * mirrored copy is accompanied by a small properties file that records the
+ * HTTP validators (ETag and Last-Modified) it was served with, so later
+ * fetches can use conditional GETs and skip unchanged content. Non-HTTP URIs
+ * (such as "file:" URIs) are simply copied. Instances are thread-safe.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class UriFetcher {
+    // *************************************************************************
+    // constants
+
+    /**
+     * maximum number of concurrent downloads
+     */
+    final private static int maxConnections = 8;
+    /**
+     * timeout for connecting and for each read, in milliseconds
+     */
+    final private static int timeoutMillis = 30_000;
+    // *************************************************************************
+    // fields
+
+    /**
+     * executor for concurrent fetches, or null if none have been started
+     * (access synchronized on this)
+     */
+    private ExecutorService executor;
+    /**
+     * directory that holds the mirrored copies (not null)
+     */
+    final private Path mirrorDirectory;
+    /**
+     * number of URIs whose content was downloaded or copied
+     */
+    final private AtomicInteger numDownloaded = new AtomicInteger();
+    /**
+     * number of URIs whose mirrored copy was confirmed unchanged
+     */
+    final private AtomicInteger numNotModified = new AtomicInteger();
+    /**
+     * number of URIs that couldn't be reached, for which an older mirrored
+     * copy was used
+     */
+    final private AtomicInteger numStale = new AtomicInteger();
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a fetcher that mirrors into the specified directory, which
+     * is created if it doesn't exist.
+     *
+     * @param mirrorDirectory the path to the mirror directory (not null)
+     * @throws IOException if the directory cannot be created
+     */
+    UriFetcher(Path mirrorDirectory) throws IOException {
+        this.mirrorDirectory = mirrorDirectory;
+        Files.createDirectories(mirrorDirectory);
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Cancel any concurrent fetches that haven't started yet, and wait for
+     * those in progress to finish. Reads from a connection can't be
+     * interrupted, so this may take up to the read timeout.
+     *
+     * @throws IOException if the current thread is interrupted while waiting
+     */
+    synchronized void cancelFetches() throws IOException {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", exception);
+        }
+    }
+
+    /**
+     * Count the URIs whose content was downloaded or copied.
+     *
+     * @return the count (&ge;0)
+     */
+    int countDownloaded() {
+        return numDownloaded.get();
+    }
+
+    /**
+     * Count the URIs whose mirrored copy was confirmed unchanged.
+     *
+     * @return the count (&ge;0)
+     */
+    int countNotModified() {
+        return numNotModified.get();
+    }
+
+    /**
+     * Count the unreachable URIs for which an older mirrored copy was used.
+     *
+     * @return the count (&ge;0)
+     */
+    int countStale() {
+        return numStale.get();
+    }
+
+    /**
+     * Delete the mirror directory, along with all its content. Intended for
+     * temporary mirrors, after any concurrent fetches have been canceled.
+     *
+     * @throws IOException if a file or the directory cannot be deleted
+     */
+    void deleteMirror() throws IOException {
+        try (DirectoryStream<Path> entries
+                = Files.newDirectoryStream(mirrorDirectory)) {
+            for (Path entry : entries) {
+                Files.delete(entry);
+            }
+        }
+        Files.delete(mirrorDirectory);
+    }
+
+    /**
+     * Update the mirrored copy of the specified URI. If the server can't be
+     * reached but an older copy exists, the older copy is used.
+     *
+     * @param uri the URI to fetch (not null)
+     * @return the path to the mirrored copy (not null)
+     * @throws IOException if the URI is malformed, if the server reports an
+     * error, or if the content can't be fetched and no copy exists
+     */
+    Path fetch(String uri) throws IOException {
+        String name = mirrorName(uri);
+        Path copy = mirrorDirectory.resolve(name);
+        Path metaPath = mirrorDirectory.resolve(name + ".properties");
+        Properties meta = new Properties();
+        if (Files.isRegularFile(copy) && Files.isRegularFile(metaPath)) {
+            try (InputStream stream = Files.newInputStream(metaPath)) {
+                meta.load(stream);
+            }
+        }
+
+        URLConnection connection = new URL(uri).openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        if (connection instanceof HttpURLConnection) {
+            HttpURLConnection http = (HttpURLConnection) connection;
+            String etag = meta.getProperty("etag");
+            if (etag != null) {
+                http.setRequestProperty("If-None-Match", etag);
+            }
+            String lastModified = meta.getProperty("lastModified");
+            if (lastModified != null) {
+                http.setRequestProperty("If-Modified-Since", lastModified);
+            }
+
+            int status;
+            try {
+                status = http.getResponseCode();
+            } catch (IOException exception) {
+                if (Files.isRegularFile(copy)) {
+                    numStale.incrementAndGet();
+                    return copy;
+                }
+                throw exception;
+            }
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED
+                    && Files.isRegularFile(copy)) {
+                http.disconnect();
+                numNotModified.incrementAndGet();
+                return copy;
+            } else if (status != HttpURLConnection.HTTP_OK) {
+                http.disconnect();
+                throw new IOException(
+                        "HTTP status " + status + " fetching " + uri);
+            }
+        }
+
+        // Download to a temporary file, then rename it over the old copy:
+        Path tempPath = Files.createTempFile(mirrorDirectory, "." + name, null);
+        try {
+            try (InputStream stream = connection.getInputStream()) {
+                Files.copy(stream, tempPath,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            moveAtomically(tempPath, copy);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+        numDownloaded.incrementAndGet();
+
+        recordValidators(connection, uri, metaPath);
+
+        return copy;
+    }
+
+    /**
+     * Start fetching the specified URIs concurrently.
+     *
+     * @param uris the URIs to fetch (not null, unaffected)
+     * @return a new list of futures, one per URI, in the same order, each
+     * yielding the path to a mirrored copy
+     * @throws IllegalStateException if fetches were already started
+     */
+    synchronized List<Future<Path>> fetchAll(List<String> uris) {
+        if (executor != null) {
+            throw new IllegalStateException("Fetches were already started.");
+        }
+
+        int numThreads = Math.max(1, Math.min(uris.size(), maxConnections));
+        this.executor = Executors.newFixedThreadPool(numThreads);
+        List<Future<Path>> result = new ArrayList<>(uris.size());
+        for (String uri : uris) {
+            result.add(executor.submit(() -> fetch(uri)));
+        }
+        executor.shutdown();
+
+        return result;
+    }
+
+    /**
+     * Extract the last segment of the path of the specified URI, ignoring any
+     * query or fragment.
+     *
+     * @param uri the URI (not null)
+     * @return the segment (not null, may be empty)
+     */
+    static String lastSegment(String uri) {
+        String result = uri.replaceFirst("[?#].*", "").replaceFirst(".*/", "");
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Generate the filename of the mirrored copy of the specified URI: a
+     * hash of the URI followed by the last segment of its path.
+     *
+     * @param uri the URI (not null)
+     * @return a filename (not null, not empty)
+     */
+    private static String mirrorName(String uri) {
+        byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+        String prefix = ResultCache.hash(bytes).substring(0, 16);
+        String lastSegment
+                = lastSegment(uri).replaceAll("[^A-Za-z0-9._-]", "_");
+        String result = prefix + "-" + lastSegment;
+
+        return result;
+    }
+
+    /**
+     * Rename the specified file over the specified target, atomically if the
+     * file system allows it.
+     *
+     * @param source the path to the file to rename (not null)
+     * @param target the path to the target (not null)
+     * @throws IOException if the file cannot be renamed
+     */
+    private static void moveAtomically(Path source, Path target)
+            throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Record the HTTP validators of a completed download, for use in the
+     * next fetch of the same URI.
+     *
+     * @param connection the connection used for the download (not null)
+     * @param uri the URI that was fetched (not null)
+     * @param metaPath the path to the properties file (not null)
+     * @throws IOException if the file cannot be written
+     */
+    private void recordValidators(URLConnection connection, String uri,
+            Path metaPath) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("uri", uri);
+        String etag = connection.getHeaderField("ETag");
+        if (etag != null) {
+            meta.setProperty("etag", etag);
+        }
+        String lastModified = connection.getHeaderField("Last-Modified");
+        if (lastModified != null) {
+            meta.setProperty("lastModified", lastModified);
+        }
+
+        String prefix = "." + metaPath.getFileName();
+        Path tempPath = Files.createTempFile(mirrorDirectory, prefix, null);
+        try {
+            try (OutputStream stream = Files.newOutputStream(tempPath)) {
+                meta.store(stream, null);
+            }
+            moveAtomically(tempPath, metaPath);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+}
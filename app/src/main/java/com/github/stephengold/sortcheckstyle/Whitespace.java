@@ -0,0 +1,131 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+/**
+ * Utilities to compress whitespace in message/property values.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class Whitespace {
+    // *************************************************************************
+    // constants
+
+    /**
+     * per-thread buffer for compressing values
+     */
+    final private static ThreadLocal<StringBuilder> compressionBuffer
+            = ThreadLocal.withInitial(StringBuilder::new);
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private Whitespace() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Compress any whitespace in the specified message/property value: each
+     * run of whitespace characters (as matched by the regex "\\s") becomes a
+     * single space.
+     *
+     * @param value the value to compress (not null)
+     * @return the compressed value, or {@code value} itself if it's already
+     * compressed
+     */
+    static String compress(String value) {
+        // Scan for the first whitespace that needs to change:
+        int length = value.length();
+        int firstChange = -1;
+        for (int i = 0; i < length; ++i) {
+            char ch = value.charAt(i);
+            if (isWhitespace(ch) && (ch != ' '
+                    || (i + 1 < length && isWhitespace(value.charAt(i + 1))))) {
+                firstChange = i;
+                break;
+            }
+        }
+        if (firstChange < 0) {
+            return value;
+        }
+
+        // Build the result in a single pass, using a per-thread buffer:
+        StringBuilder buffer = compressionBuffer.get();
+        buffer.setLength(0);
+        buffer.append(value, 0, firstChange);
+        int i = firstChange;
+        while (i < length) {
+            char ch = value.charAt(i);
+            if (isWhitespace(ch)) {
+                buffer.append(' ');
+                do {
+                    ++i;
+                } while (i < length && isWhitespace(value.charAt(i)));
+            } else {
+                buffer.append(ch);
+                ++i;
+            }
+        }
+        String result = buffer.toString();
+
+        return result;
+    }
+
+    /**
+     * Test whether whitespace in the "value" attribute of an element with
+     * the specified tag gets compressed.
+     *
+     * @param tag the element's tag (not null)
+     * @return {@code true} for a message or property, otherwise
+     * {@code false}
+     */
+    static boolean isCompressible(String tag) {
+        boolean result = tag.equals("message") || tag.equals("property");
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Test whether the specified character is whitespace, as matched by the
+     * regex "\\s".
+     *
+     * @param ch the character to test
+     * @return {@code true} if whitespace, otherwise {@code false}
+     */
+    private static boolean isWhitespace(char ch) {
+        switch (ch) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\u000B':
+            case '\f':
+            case '\r':
+                return true;
+            default:
+                return false;
+        }
+    }
+}
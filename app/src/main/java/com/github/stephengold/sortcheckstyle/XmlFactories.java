@@ -0,0 +1,276 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Pre-configured XML parsers, serializers, and stream-reader factories,
+ * cached per thread so that setup costs are paid once per thread instead of
+ * once per document. The JAXP factories themselves are created once per
+ * process.
+ * <p>
+ * Parsers never access the network for the Checkstyle configuration DTD:
+ * they're served a copy bundled with the application instead, and any other
+ * remote external entity is rejected with a parse error, since silently
+ * omitting its content would lose part of the configuration.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class XmlFactories {
+    // *************************************************************************
+    // constants
+
+    /**
+     * shared factory for parsers (not null, access synchronized on itself)
+     */
+    final private static DocumentBuilderFactory builderFactory
+            = newBuilderFactory();
+    /**
+     * per-thread parsers
+     */
+    final private static ThreadLocal<DocumentBuilder> builders
+            = ThreadLocal.withInitial(XmlFactories::newBuilder);
+    /**
+     * name of the Xerces feature for deferred DOM node expansion
+     */
+    final private static String deferFeature
+            = "http://apache.org/xml/features/dom/defer-node-expansion";
+    /**
+     * public IDs of the Checkstyle configuration DTDs
+     */
+    final private static Set<String> dtdPublicIds
+            = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.0//EN",
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.1//EN",
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.2//EN",
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN",
+                    "-//Puppy Crawl//DTD Check Configuration 1.0//EN",
+                    "-//Puppy Crawl//DTD Check Configuration 1.1//EN",
+                    "-//Puppy Crawl//DTD Check Configuration 1.2//EN",
+                    "-//Puppy Crawl//DTD Check Configuration 1.3//EN")));
+    /**
+     * name of the bundled DTD resource, relative to this class
+     */
+    final private static String dtdResource = "configuration_1_3.dtd";
+    /**
+     * matches the system IDs of published Checkstyle configuration DTDs
+     */
+    final private static Pattern dtdSystemId
+            = Pattern.compile(".*/configuration_1_[0-3]\\.dtd");
+    /**
+     * per-thread factories for stream readers
+     */
+    final private static ThreadLocal<XMLInputFactory> inputFactories
+            = ThreadLocal.withInitial(XmlFactories::newInputFactory);
+    /**
+     * shared factory for serializers (not null, access synchronized on
+     * itself)
+     */
+    final private static TransformerFactory transformerFactory
+            = TransformerFactory.newInstance();
+    /**
+     * per-thread serializers
+     */
+    final private static ThreadLocal<Transformer> transformers
+            = ThreadLocal.withInitial(XmlFactories::newTransformer);
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private XmlFactories() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the current thread's parser, which resolves the Checkstyle DTD
+     * locally.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    static DocumentBuilder documentBuilder() {
+        DocumentBuilder result = builders.get();
+        return result;
+    }
+
+    /**
+     * Access the current thread's factory for stream readers. Readers it
+     * creates treat namespace declarations as ordinary attributes, coalesce
+     * adjacent text, and ignore the DTD.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    static XMLInputFactory inputFactory() {
+        XMLInputFactory result = inputFactories.get();
+        return result;
+    }
+
+    /**
+     * Access the current thread's identity transformer.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    static Transformer transformer() {
+        Transformer result = transformers.get();
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Create the shared factory for parsers. Deferred node expansion is
+     * disabled, so that a parsed DOM is complete and reading it never
+     * modifies it, which lets distinct threads plan the sorting of distinct
+     * modules.
+     *
+     * @return a new factory (not null)
+     */
+    private static DocumentBuilderFactory newBuilderFactory() {
+        DocumentBuilderFactory result = DocumentBuilderFactory.newInstance();
+        try {
+            result.setFeature(deferFeature, false);
+        } catch (ParserConfigurationException exception) {
+            // Xerces, including the JDK's internal copy, supports the feature
+            throw new IllegalStateException(exception);
+        }
+
+        return result;
+    }
+
+    /**
+     * Create a parser. JAXP factories aren't thread-safe, so access to the
+     * shared factory is synchronized.
+     *
+     * @return a new parser (not null)
+     */
+    private static DocumentBuilder newBuilder() {
+        DocumentBuilder result;
+        try {
+            synchronized (builderFactory) {
+                result = builderFactory.newDocumentBuilder();
+            }
+        } catch (ParserConfigurationException exception) {
+            // the default configuration is always supported
+            throw new IllegalStateException(exception);
+        }
+        result.setEntityResolver(XmlFactories::resolveEntity);
+
+        return result;
+    }
+
+    /**
+     * Create and configure a factory for stream readers.
+     *
+     * @return a new factory (not null)
+     */
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory result = XMLInputFactory.newInstance();
+        result.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // Treat namespace declarations as ordinary attributes:
+        result.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        // Don't fetch the external DTD:
+        result.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        result.setProperty(
+                XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return result;
+    }
+
+    /**
+     * Create an identity transformer that omits the XML declaration, so
+     * {@link FileSorter} can write the prolog itself. JAXP factories aren't
+     * thread-safe, so access to the shared factory is synchronized.
+     *
+     * @return a new transformer (not null)
+     */
+    private static Transformer newTransformer() {
+        try {
+            Transformer result;
+            synchronized (transformerFactory) {
+                result = transformerFactory.newTransformer();
+            }
+            result.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+
+            return result;
+        } catch (TransformerConfigurationException exception) {
+            // the identity transform is always supported
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Resolve an external entity without accessing the network: the
+     * Checkstyle configuration DTD is read from the bundled copy, other
+     * local entities are read normally, and other remote entities are
+     * rejected.
+     *
+     * @param publicId the public ID of the entity, or {@code null} if none
+     * @param systemId the system ID of the entity (may be null)
+     * @return an input source, or {@code null} to read a local entity
+     * normally
+     * @throws SAXException if the entity is remote and isn't a Checkstyle
+     * configuration DTD
+     */
+    private static InputSource resolveEntity(String publicId, String systemId)
+            throws SAXException {
+        boolean isCheckstyleDtd = dtdPublicIds.contains(publicId)
+                || systemId != null && dtdSystemId.matcher(systemId).matches();
+        if (!isCheckstyleDtd) {
+            if (systemId == null || systemId.startsWith("file:")
+                    || systemId.startsWith("jar:file:")) {
+                return null;
+            }
+            String message = String.format("Can't resolve remote external "
+                    + "entity \"%s\": parsing never accesses the network",
+                    systemId);
+            throw new SAXException(message);
+        }
+
+        InputStream stream
+                = XmlFactories.class.getResourceAsStream(dtdResource);
+        assert stream != null : dtdResource;
+
+        InputSource result = new InputSource(stream);
+        result.setPublicId(publicId);
+        result.setSystemId(systemId);
+
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Automated tests for the {@link FileSorter} class.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class FileSorterTest {
+    // *************************************************************************
+    // constants
+
+    /**
+     * expected start of each sorted copy of the "doctype.xml" fixture
+     */
+    final private static String expectedProlog
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"
+            + "<!DOCTYPE module PUBLIC"
+            + " \"-//Checkstyle//DTD Checkstyle Configuration 1.3//EN\""
+            + " \"https://checkstyle.org/dtds/configuration_1_3.dtd\">\n"
+            + "<!-- a comment before the root element -->\n"
+            + "<module name=\"Checker\">";
+    // *************************************************************************
+    // fields
+
+    /**
+     * temporary directory for files rewritten by the tests
+     */
+    @TempDir
+    public Path tempDir;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Verify that sorting a file in place, as batch mode does, keeps its
+     * document type declaration and writes the XML declaration on a line of
+     * its own.
+     *
+     * @throws Exception if the fixture cannot be copied or sorted
+     */
+    @Test
+    public void testSortInPlaceKeepsDoctype() throws Exception {
+        Path path = copyFixture("doctype.xml");
+        Parameters parameters
+                = new Parameters(false, true, true, ModuleGroups.builtIn());
+        FileSorter sorter = new FileSorter(parameters, new Stats(), null);
+        sorter.sortInPlace(path);
+
+        byte[] bytes = Files.readAllBytes(path);
+        String output = new String(bytes, StandardCharsets.UTF_8);
+        Assertions.assertTrue(output.startsWith(expectedProlog), output);
+        Assertions.assertTrue(output.endsWith("</module>\n"), output);
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Copy the named fixture from the test resources to the temporary
+     * directory.
+     *
+     * @param fileName the name of the fixture (not null)
+     * @return the path to the new copy (not null)
+     * @throws Exception if the fixture cannot be copied
+     */
+    private Path copyFixture(String fileName) throws Exception {
+        Path result = tempDir.resolve(fileName);
+        try (InputStream stream
+                = FileSorterTest.class.getResourceAsStream("/" + fileName)) {
+            Files.copy(stream, result);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+/**
+ * Automated tests for the {@link TreeSorter} class.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TreeSorterTest {
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Verify that the tree engine gives the same output as the DOM engine
+     * for every combination of options, using a fixture whose elements have
+     * their attributes out of order.
+     *
+     * @throws Exception if the fixture cannot be read or sorted
+     */
+    @Test
+    public void testMatchesDom() throws Exception {
+        URL input = TreeSorterTest.class.getResource("/attributes.xml");
+        boolean[] flags = {false, true};
+        for (boolean compress : flags) {
+            for (boolean sortAttributes : flags) {
+                for (boolean sortChildren : flags) {
+                    Parameters parameters = new Parameters(compress,
+                            sortAttributes, sortChildren,
+                            ModuleGroups.builtIn());
+                    String expected = sortWithDom(parameters, input);
+                    String actual = sortWithTree(parameters, input);
+                    Assertions.assertEquals(expected, actual);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verify that the tree engine writes the attributes of every element in
+     * order of name, not just those of modules.
+     *
+     * @throws Exception if the fixture cannot be read or sorted
+     */
+    @Test
+    public void testSortsAllAttributes() throws Exception {
+        URL input = TreeSorterTest.class.getResource("/attributes.xml");
+        Parameters parameters
+                = new Parameters(false, true, true, ModuleGroups.builtIn());
+        String output = sortWithTree(parameters, input);
+
+        String[] expectedLines = {
+            "<module name=\"Checker\" severity=\"warning\">",
+            "<metadata name=\"a\" value=\"1\"/>",
+            "<property name=\"charset\" value=\"UTF-8\"/>",
+            "<message key=\"a\" value=\"n\"/>",
+            "<message key=\"b\" value=\"m\"/>"
+        };
+        for (String line : expectedLines) {
+            Assertions.assertTrue(output.contains(line), output);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Sort the specified input using the DOM engine.
+     *
+     * @param parameters the processing options (not null)
+     * @param input the location of the input (not null)
+     * @return the output text (not null)
+     * @throws Exception if the input cannot be read or sorted
+     */
+    private static String sortWithDom(Parameters parameters, URL input)
+            throws Exception {
+        FileSorter sorter = new FileSorter(parameters, new Stats(), null);
+        Document document = sorter.parse(input);
+        sorter.process(document);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        sorter.write(document, stream);
+        byte[] bytes = stream.toByteArray();
+        String result = new String(bytes, StandardCharsets.UTF_8);
+
+        return result;
+    }
+
+    /**
+     * Sort the specified input using the tree engine.
+     *
+     * @param parameters the processing options (not null)
+     * @param input the location of the input (not null)
+     * @return the output text (not null)
+     * @throws Exception if the input cannot be read or sorted
+     */
+    private static String sortWithTree(Parameters parameters, URL input)
+            throws Exception {
+        TreeSorter sorter = new TreeSorter(parameters, new Stats());
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        sorter.sort(input, stream);
+        byte[] bytes = stream.toByteArray();
+        String result = new String(bytes, StandardCharsets.UTF_8);
+
+        return result;
+    }
+}
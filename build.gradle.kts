@@ -43,6 +43,10 @@ tasks.register("runSun") {
     dependsOn(":app:runSun")
     description = "Process the Checkstyle configuration for Sun's Java Style."
 }
+tasks.register("sortConfigs") {
+    dependsOn(":app:sortConfigs")
+    description = "Sort the project's Checkstyle configurations in-process."
+}
 
 // Register cleanup tasks:
 
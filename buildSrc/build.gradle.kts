@@ -0,0 +1,9 @@
+// Gradle script to build the custom tasks of the SortCheckstyle project
+
+plugins {
+    java // to compile the custom tasks, which are written in Java
+}
+
+dependencies {
+    implementation(gradleApi())
+}
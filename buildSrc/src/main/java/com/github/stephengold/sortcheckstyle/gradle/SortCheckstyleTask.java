@@ -0,0 +1,182 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle.gradle;
+
+import java.io.File;
+import javax.inject.Inject;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.FileType;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+/**
+ * Gradle task to sort Checkstyle configurations in-process, using the worker
+ * API. Each source file is sorted into the output directory under its
+ * relative path. The task is incremental and cacheable: only added or
+ * modified sources are re-sorted, and the outputs of removed sources are
+ * deleted.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+@CacheableTask
+abstract public class SortCheckstyleTask extends DefaultTask {
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a task with the command-line default options.
+     */
+    public SortCheckstyleTask() {
+        getCompress().convention(false);
+        getSortAttributes().convention(true);
+        getSortChildren().convention(true);
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the option to compress whitespace in values.
+     *
+     * @return the pre-existing property (not null)
+     */
+    @Input
+    abstract public Property<Boolean> getCompress();
+
+    /**
+     * Access the directory for the sorted configurations.
+     *
+     * @return the pre-existing property (not null)
+     */
+    @OutputDirectory
+    abstract public DirectoryProperty getOutputDirectory();
+
+    /**
+     * Access the option to sort attributes.
+     *
+     * @return the pre-existing property (not null)
+     */
+    @Input
+    abstract public Property<Boolean> getSortAttributes();
+
+    /**
+     * Access the option to sort children.
+     *
+     * @return the pre-existing property (not null)
+     */
+    @Input
+    abstract public Property<Boolean> getSortChildren();
+
+    /**
+     * Access the classpath that provides the SortCheckstyle engine and its
+     * dependencies.
+     *
+     * @return the pre-existing collection (not null)
+     */
+    @Classpath
+    abstract public ConfigurableFileCollection getSorterClasspath();
+
+    /**
+     * Access the configurations to sort. Changes to them are tracked
+     * incrementally, since @SkipWhenEmpty implies @Incremental.
+     *
+     * @return the pre-existing collection (not null)
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    @SkipWhenEmpty
+    abstract public ConfigurableFileCollection getSource();
+
+    /**
+     * Sort each added or modified source, and delete the outputs of removed
+     * sources.
+     *
+     * @param changes the changes to the inputs since the last execution (not
+     * null)
+     */
+    @TaskAction
+    public void sort(InputChanges changes) {
+        File outputDirectory = getOutputDirectory().get().getAsFile();
+        if (!changes.isIncremental()) {
+            // Start from scratch, so no stale outputs remain:
+            getFileSystemOperations().delete(
+                    spec -> spec.delete(outputDirectory));
+        }
+
+        WorkQueue queue = getWorkerExecutor().classLoaderIsolation(
+                spec -> spec.getClasspath().from(getSorterClasspath()));
+        for (FileChange change : changes.getFileChanges(getSource())) {
+            if (change.getFileType() == FileType.DIRECTORY) {
+                continue;
+            }
+
+            File outputFile
+                    = new File(outputDirectory, change.getNormalizedPath());
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                getFileSystemOperations().delete(
+                        spec -> spec.delete(outputFile));
+                continue;
+            }
+
+            queue.submit(SortCheckstyleWork.class, parameters -> {
+                parameters.getInputFile().set(change.getFile());
+                parameters.getOutputFile().set(outputFile);
+                parameters.getCompress().set(getCompress());
+                parameters.getSortAttributes().set(getSortAttributes());
+                parameters.getSortChildren().set(getSortChildren());
+            });
+        }
+    }
+    // *************************************************************************
+    // services
+
+    /**
+     * Access the service for deleting files.
+     *
+     * @return the pre-existing service (not null)
+     */
+    @Inject
+    abstract protected FileSystemOperations getFileSystemOperations();
+
+    /**
+     * Access the service for submitting work.
+     *
+     * @return the pre-existing service (not null)
+     */
+    @Inject
+    abstract protected WorkerExecutor getWorkerExecutor();
+}
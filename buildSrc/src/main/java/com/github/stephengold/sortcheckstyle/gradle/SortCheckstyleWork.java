@@ -0,0 +1,140 @@
+/*
+Copyright (c) 2026 Stephen Gold
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package com.github.stephengold.sortcheckstyle.gradle;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * Unit of work that sorts a single Checkstyle configuration. It runs in an
+ * isolated class loader whose classpath includes the SortCheckstyle engine,
+ * which is accessed by reflection because the build logic is compiled before
+ * the application.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+abstract public class SortCheckstyleWork
+        implements WorkAction<SortCheckstyleWork.Parameters> {
+    // *************************************************************************
+    // constants
+
+    /**
+     * fully qualified name of the engine class
+     */
+    final private static String engineClassName
+            = "com.github.stephengold.sortcheckstyle.SortCheckstyle";
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Sort the input file into the output file.
+     */
+    @Override
+    public void execute() {
+        Parameters parameters = getParameters();
+        File inputFile = parameters.getInputFile().get().getAsFile();
+        File outputFile = parameters.getOutputFile().get().getAsFile();
+        File outputDirectory = outputFile.getParentFile();
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new GradleException(
+                    "Failed to create directory " + outputDirectory);
+        }
+
+        Object engine;
+        Method sortFile;
+        try {
+            Class<?> engineClass = Class.forName(engineClassName);
+            engine = engineClass.getConstructor().newInstance();
+            engine = engineClass.getMethod("withCompression", boolean.class)
+                    .invoke(engine, parameters.getCompress().get());
+            engine = engineClass
+                    .getMethod("withSortedAttributes", boolean.class)
+                    .invoke(engine, parameters.getSortAttributes().get());
+            engine = engineClass
+                    .getMethod("withSortedChildren", boolean.class)
+                    .invoke(engine, parameters.getSortChildren().get());
+            sortFile
+                    = engineClass.getMethod("sortFile", Path.class, Path.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new GradleException("The SortCheckstyle engine isn't "
+                    + "available on the sorter classpath", exception);
+        }
+
+        try {
+            sortFile.invoke(engine, inputFile.toPath(), outputFile.toPath());
+        } catch (InvocationTargetException exception) {
+            throw new GradleException(
+                    "Failed to sort " + inputFile, exception.getCause());
+        } catch (IllegalAccessException exception) {
+            throw new GradleException("Failed to invoke the engine", exception);
+        }
+    }
+    // *************************************************************************
+    // Parameters interface
+
+    /**
+     * Parameters of a unit of work.
+     */
+    public interface Parameters extends WorkParameters {
+        /**
+         * Access the option to compress whitespace in values.
+         *
+         * @return the pre-existing property (not null)
+         */
+        Property<Boolean> getCompress();
+
+        /**
+         * Access the file to sort.
+         *
+         * @return the pre-existing property (not null)
+         */
+        RegularFileProperty getInputFile();
+
+        /**
+         * Access the file to write.
+         *
+         * @return the pre-existing property (not null)
+         */
+        RegularFileProperty getOutputFile();
+
+        /**
+         * Access the option to sort attributes.
+         *
+         * @return the pre-existing property (not null)
+         */
+        Property<Boolean> getSortAttributes();
+
+        /**
+         * Access the option to sort children.
+         *
+         * @return the pre-existing property (not null)
+         */
+        Property<Boolean> getSortChildren();
+    }
+}